@@ -0,0 +1,148 @@
+package com.study3355;
+
+import com.study3355.account.AccountNameFilter;
+import com.study3355.account.AccountRepository;
+import com.study3355.account.UserAccount;
+import com.study3355.domain.Account;
+import com.study3355.tag.AccountTagJdbcRepository;
+import com.study3355.tag.MemberTagIndex;
+import com.study3355.tag.TagResolver;
+import com.study3355.tag.TagPopularity;
+import com.study3355.tag.TagSuggestIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.ApplicationContextFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.servlet.support.ServletContextApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트 (포크마다 한 번 띄움)
+ * @SpringBootTest 의 MOCK 환경과 같이 톰캣 없이 MockServletContext 로 띄우고, 내장 H2 에 회원과 태그를 채워둠
+ * 로그와 SQL 출력은 측정에 영향을 주므로 끔
+ */
+@State(Scope.Benchmark)
+public class BenchmarkApplication {
+
+    public static final int ACCOUNTS = 10_000;
+    public static final int TAGS = 500;
+    public static final int TAGS_PER_ACCOUNT = 5;
+
+    public ConfigurableApplicationContext context;
+    public MockMvc mockMvc;
+    public List<Account> accounts;
+    public List<String> tagTitles;
+
+    @Setup(Level.Trial)
+    public void start() {
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+        application.setApplicationContextFactory(ApplicationContextFactory.of(GenericWebApplicationContext::new));
+        application.addInitializers(new ServletContextApplicationContextInitializer(new MockServletContext()));
+
+        context = application.run(
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--app.password.strength=4");
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+
+        seed();
+    }
+
+    private void seed() {
+        // 모든 회원이 같은 해시를 사용 (해시 계산은 따로 측정)
+        String password = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678");
+
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        List<Account> batch = new ArrayList<>();
+        accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            batch.add(Account.builder()
+                    .email("bench" + i + "@test.com")
+                    .nickname("bench" + i)
+                    .password(password)
+                    .emailVerified(i % 2 == 0)
+                    .bio("벤치마크 회원 " + i)
+                    .location("서울")
+                    .studyCreatedByWeb(true)
+                    .studyEnrollmentResultByWeb(true)
+                    .studyUpdatedByWeb(true)
+                    .build());
+            if (batch.size() == 1000) {
+                accounts.addAll(accountRepository.saveAll(batch));
+                batch.clear();
+            }
+        }
+        accounts.addAll(accountRepository.saveAll(batch));
+
+        tagTitles = new ArrayList<>(TAGS);
+        for (int i = 0; i < TAGS; i++) {
+            tagTitles.add("tag-" + i);
+        }
+        Map<String, Long> tagIds = context.getBean(TagResolver.class).resolve(tagTitles);
+
+        AccountTagJdbcRepository accountTagJdbcRepository = context.getBean(AccountTagJdbcRepository.class);
+        Random random = new Random(42);
+        for (Account account : accounts) {
+            Set<Long> ids = new HashSet<>();
+            while (ids.size() < TAGS_PER_ACCOUNT) {
+                ids.add(tagIds.get(tagTitles.get(random.nextInt(TAGS))));
+            }
+            accountTagJdbcRepository.insert(account.getId(), ids);
+        }
+
+        // 기동할 때(ApplicationReadyEvent) 만든 인덱스에는 채운 데이터가 없으므로 다시 만듦
+        context.getBean(AccountNameFilter.class).rebuild();
+        context.getBean(TagPopularity.class).reconcile();
+        context.getBean(TagSuggestIndex.class).rebuild();
+        context.getBean(MemberTagIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Account randomAccount() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+    }
+
+    // 로그인한 사용자로 요청 (세션 없이 SecurityContext 만 넣음)
+    public static RequestPostProcessor loggedIn(Account account) {
+        UserAccount userAccount = new UserAccount(account);
+        return authentication(new UsernamePasswordAuthenticationToken(userAccount, null, userAccount.getAuthorities()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.study3355;
+
+import com.study3355.domain.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 화면 렌더링 (요청 처리 + Thymeleaf)
+ * 로그인한 사용자로 요청해서, 로그인하지 않은 사용자용 프로필 페이지 캐시를 거치지 않고 매번 렌더링하게 함
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ViewRenderingBenchmark {
+
+    @Benchmark
+    public int settingsProfile(BenchmarkApplication application) throws Exception {
+        Account account = application.randomAccount();
+        return application.mockMvc.perform(get("/settings/profile")
+                        .with(BenchmarkApplication.loggedIn(account)))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int accountProfile(BenchmarkApplication application) throws Exception {
+        Account viewer = application.randomAccount();
+        Account owner = application.randomAccount();
+        return application.mockMvc.perform(get("/profile/" + owner.getNickname())
+                        .with(BenchmarkApplication.loggedIn(viewer)))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,108 @@
+package com.study3355.account;
+
+import com.study3355.BenchmarkApplication;
+import com.study3355.domain.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로그인(UserDetailsService), principal 생성, 회원 가입 폼 검증, 이메일 토큰 확인 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountBenchmark {
+
+    private AccountService accountService;
+    private AccountCredentialsCache accountCredentialsCache;
+    private SignUpFormValidator signUpFormValidator;
+    private AccountCredentials credentials;
+    private EmailTokenSigner emailTokenSigner;
+    private String forgedToken;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setup(BenchmarkApplication application) {
+        accountService = application.getBean(AccountService.class);
+        accountCredentialsCache = application.getBean(AccountCredentialsCache.class);
+        signUpFormValidator = application.getBean(SignUpFormValidator.class);
+        emailTokenSigner = application.getBean(EmailTokenSigner.class);
+
+        // 형식과 만료 시각은 맞지만 서명이 틀린 토큰 -> 매번 HMAC 까지 계산해야 하는 가장 비싼 경우
+        forgedToken = "1.L." + Instant.now().plusSeconds(3600).getEpochSecond() + ".0."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[32]);
+
+        Account account = application.accounts.get(0);
+        credentials = new AccountCredentials(account.getId(), account.getEmail(), account.getNickname(),
+                account.getPassword(), account.isEmailVerified(), account.isAdmin(), account.getVersion());
+    }
+
+    // 캐시에 있는 경우 (대부분의 로그인, remember-me)
+    @Benchmark
+    public UserDetails loadUserByUsername(BenchmarkApplication application) {
+        return accountService.loadUserByUsername(application.randomAccount().getNickname());
+    }
+
+    // 캐시에 없어서 DB 를 조회하는 경우
+    @Benchmark
+    public UserDetails loadUserByUsername_cacheMiss(BenchmarkApplication application) {
+        String email = application.randomAccount().getEmail();
+        accountCredentialsCache.evict(email);
+        return accountService.loadUserByUsername(email);
+    }
+
+    @Benchmark
+    public UserAccount userAccount_fromCredentials() {
+        return new UserAccount(credentials);
+    }
+
+    @Benchmark
+    public UserAccount userAccount_fromAccount(BenchmarkApplication application) {
+        return new UserAccount(application.randomAccount());
+    }
+
+    // 처음 보는 이메일/닉네임 -> Bloom filter 만 확인
+    @Benchmark
+    public Errors signUpFormValidator_newName() {
+        long n = sequence.incrementAndGet();
+        return validate("new" + n, "new" + n + "@test.com");
+    }
+
+    // 이미 있는 이메일/닉네임 -> DB 로 확인
+    @Benchmark
+    public Errors signUpFormValidator_taken(BenchmarkApplication application) {
+        Account account = application.randomAccount();
+        return validate(account.getNickname(), account.getEmail());
+    }
+
+    // 서명이 틀린 토큰 -> DB 조회 없이 HMAC 비교 후 거절
+    @Benchmark
+    public Optional<EmailTokenSigner.Claims> emailTokenSigner_forged() {
+        return emailTokenSigner.verify(forgedToken, EmailTokenSigner.Purpose.LOGIN);
+    }
+
+    private Errors validate(String nickname, String email) {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname(nickname);
+        signUpForm.setEmail(email);
+        signUpForm.setPassword("12345678");
+
+        Errors errors = new BeanPropertyBindingResult(signUpForm, "signUpForm");
+        signUpFormValidator.validate(signUpForm, errors);
+        return errors;
+    }
+}
@@ -0,0 +1,112 @@
+package com.study3355.account;
+
+import com.study3355.BenchmarkApplication;
+import com.study3355.api.CursorPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 회원 목록 API 페이지 이동 비용, 회원 100만 명에서 1페이지와 10,000페이지 비교
+ * keyset(where id > ? order by id limit n)은 페이지와 상관없이 일정하고, offset 은 건너뛰는 행 수만큼 느려짐
+ * ./gradlew jmh -Pjmh.includes=AccountPageBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx2g")
+public class AccountPageBenchmark {
+
+    static final int ROWS = 1_000_000;
+    static final int PAGE_SIZE = CursorPage.DEFAULT_SIZE;
+
+    private static final String INSERT_SQL =
+            "insert into account (id, email, nickname, password, email_verified, admin, token_version, bio, location, " +
+            "study_created_by_email, study_created_by_web, study_enrollment_result_by_email, " +
+            "study_enrollment_result_by_web, study_updated_by_email, study_updated_by_web) " +
+            "values (?, ?, ?, '{noop}12345678', false, false, 0, ?, '서울', false, true, false, true, false, true)";
+
+    @Param({"1", "10000"})
+    public int page;
+
+    private AccountRepository accountRepository;
+    private EntityManager entityManager;
+    private long afterId;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkApplication application) {
+        accountRepository = application.getBean(AccountRepository.class);
+        entityManager = application.getBean(EntityManagerFactory.class).createEntityManager();
+
+        // BenchmarkApplication 이 채운 회원 뒤에 id 를 이어서 100만 명까지 채움 (엔티티를 거치지 않고 JDBC 배치)
+        JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+        long nextId = jdbcTemplate.queryForObject("select max(id) from account", Long.class) + 1;
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = BenchmarkApplication.ACCOUNTS; i < ROWS; i++) {
+            long id = nextId++;
+            batch.add(new Object[]{id, "page" + id + "@test.com", "page" + id, "벤치마크 회원 " + id});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+
+        // page 번째 페이지를 읽기 위한 마지막 id (1페이지면 처음부터)
+        int skip = (page - 1) * PAGE_SIZE;
+        afterId = skip == 0 ? 0 : jdbcTemplate.queryForObject(
+                "select id from account order by id offset ? rows fetch next 1 rows only", Long.class, skip - 1);
+        cursor = skip == 0 ? null : CursorPage.cursor(AccountApiController.CURSOR_TYPE, afterId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    @Benchmark
+    public List<AccountSummary> keyset() {
+        return accountRepository.findSummariesAfter(afterId, CursorPage.fetch(PAGE_SIZE));
+    }
+
+    // 비교용: 같은 projection 을 offset 으로 읽는 경우 (Spring Data REST 의 ?page=N 과 같은 방식)
+    @Benchmark
+    public List<AccountSummary> offset() {
+        return entityManager.createQuery("select new com.study3355.account.AccountSummary(a.id, a.nickname, a.bio, " +
+                        "a.occupation, a.location, a.url, a.profileImageThumbnail) from Account a order by a.id",
+                        AccountSummary.class)
+                .setFirstResult((page - 1) * PAGE_SIZE)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList();
+    }
+
+    // 요청 처리와 JSON 직렬화까지 포함
+    @Benchmark
+    public int keyset_http(BenchmarkApplication application) throws Exception {
+        MockHttpServletRequestBuilder request = get("/accounts").with(BenchmarkApplication.loggedIn(application.accounts.get(0)));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return application.mockMvc.perform(request)
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,100 @@
+package com.study3355.settings.form;
+
+import com.study3355.domain.Account;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 설정 화면 폼 변환 비용: ModelMapper(예전) vs AccountFormMapper
+ * 호출당 할당량은 gc 프로파일러의 gc.alloc.rate.norm 으로 비교
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountFormMapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private Account account;
+    private Profile profile;
+    private Notifications notifications;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper(); // 예전 AppConfig 의 빈과 같은 설정
+        account = Account.builder()
+                .email("james@test.com")
+                .nickname("james")
+                .bio("짧은 소개")
+                .url("https://example.com")
+                .occupation("개발자")
+                .location("서울")
+                .studyCreatedByWeb(true)
+                .studyEnrollmentResultByWeb(true)
+                .studyUpdatedByWeb(true)
+                .build();
+        profile = AccountFormMapper.toProfile(account);
+        notifications = AccountFormMapper.toNotifications(account);
+    }
+
+    @Benchmark
+    public Profile toProfile_modelMapper() {
+        return modelMapper.map(account, Profile.class);
+    }
+
+    @Benchmark
+    public Profile toProfile_mapper() {
+        return AccountFormMapper.toProfile(account);
+    }
+
+    @Benchmark
+    public Notifications toNotifications_modelMapper() {
+        return modelMapper.map(account, Notifications.class);
+    }
+
+    @Benchmark
+    public Notifications toNotifications_mapper() {
+        return AccountFormMapper.toNotifications(account);
+    }
+
+    @Benchmark
+    public NicknameForm toNicknameForm_modelMapper() {
+        return modelMapper.map(account, NicknameForm.class);
+    }
+
+    @Benchmark
+    public NicknameForm toNicknameForm_mapper() {
+        return AccountFormMapper.toNicknameForm(account);
+    }
+
+    @Benchmark
+    public Account copyProfile_modelMapper() {
+        modelMapper.map(profile, account);
+        return account;
+    }
+
+    @Benchmark
+    public Account copyProfile_mapper() {
+        AccountFormMapper.copy(profile, account);
+        return account;
+    }
+
+    @Benchmark
+    public Account copyNotifications_modelMapper() {
+        modelMapper.map(notifications, account);
+        return account;
+    }
+
+    @Benchmark
+    public Account copyNotifications_mapper() {
+        AccountFormMapper.copy(notifications, account);
+        return account;
+    }
+}
@@ -0,0 +1,102 @@
+package com.study3355.tag;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비슷한 회원 찾기: MinHash/LSH 후보 + Jaccard 순위 vs 전체 회원과 비교 (정답)
+ * 회원 100만 명, 태그 500개 중 3~8개 (인기 태그에 몰리도록 Zipf 분포), DB 없이 색인만 측정
+ * recall 은 setup 에서 출력: LSH 결과 중 정답 상위 K 번째 유사도 이상인 비율 (유사도가 같은 회원이 많아서 id 로 비교하지 않음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class SimilarMemberBenchmark {
+
+    static final int ACCOUNTS = 1_000_000;
+    static final int TAGS = 500;
+    static final int K = 10;
+    static final int RECALL_QUERIES = 200;
+
+    private int[][] tags;
+    private SimilarMemberIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        double[] cdf = new double[TAGS];
+        double sum = 0;
+        for (int i = 0; i < TAGS; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < TAGS; i++) {
+            cdf[i] /= sum;
+        }
+
+        tags = new int[ACCOUNTS + 1][];
+        index = new SimilarMemberIndex(null);
+        for (int id = 1; id <= ACCOUNTS; id++) {
+            int count = 3 + random.nextInt(6);
+            TreeSet<Integer> picked = new TreeSet<>();
+            while (picked.size() < count) {
+                int position = Arrays.binarySearch(cdf, random.nextDouble());
+                picked.add(position < 0 ? -position - 1 : position);
+            }
+            tags[id] = picked.stream().mapToInt(Integer::intValue).toArray();
+            index.load(id, tags[id]);
+        }
+        index.compact();
+
+        double recall = 0;
+        for (int q = 0; q < RECALL_QUERIES; q++) {
+            int id = 1 + random.nextInt(ACCOUNTS);
+            double kth = exactKth(id);
+            long hits = index.similar((long) id, K).stream().filter(match -> match.getSimilarity() >= kth).count();
+            recall += (double) hits / K;
+        }
+        System.out.printf("%nrecall@%d = %.3f (%d queries)%n", K, recall / RECALL_QUERIES, RECALL_QUERIES);
+    }
+
+    @Benchmark
+    public List<SimilarMemberIndex.Match> lsh() {
+        return index.similar((long) randomAccount(), K);
+    }
+
+    // 비교용: 모든 회원과 Jaccard 계산
+    @Benchmark
+    public double exact() {
+        return exactKth(randomAccount());
+    }
+
+    private double exactKth(int id) {
+        double[] similarities = new double[ACCOUNTS - 1];
+        int n = 0;
+        for (int other = 1; other <= ACCOUNTS; other++) {
+            if (other != id) {
+                similarities[n++] = MinHash.jaccard(tags[id], tags[other]);
+            }
+        }
+        Arrays.sort(similarities);
+        return similarities[similarities.length - K];
+    }
+
+    private static int randomAccount() {
+        return 1 + ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+}
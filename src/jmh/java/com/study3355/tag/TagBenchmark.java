@@ -0,0 +1,111 @@
+package com.study3355.tag;
+
+import com.study3355.BenchmarkApplication;
+import com.study3355.domain.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 관심 주제(태그) 추가/삭제, 자동완성, 인기 태그
+ * 추가와 삭제를 한 번에 측정해서 데이터가 계속 늘어나지 않도록 함
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TagBenchmark {
+
+    private TagService tagService;
+    private TagRepository tagRepository;
+    private TagSuggestIndex tagSuggestIndex;
+    private TagResolver tagResolver;
+    private MemberTagIndex memberTagIndex;
+    private TagPopularity tagPopularity;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setup(BenchmarkApplication application) {
+        tagService = application.getBean(TagService.class);
+        tagRepository = application.getBean(TagRepository.class);
+        tagSuggestIndex = application.getBean(TagSuggestIndex.class);
+        tagResolver = application.getBean(TagResolver.class);
+        memberTagIndex = application.getBean(MemberTagIndex.class);
+        tagPopularity = application.getBean(TagPopularity.class);
+        jdbcTemplate = application.getBean(JdbcTemplate.class);
+    }
+
+    @Benchmark
+    public Account addAndRemoveTag(BenchmarkApplication application) {
+        Account account = application.randomAccount();
+        List<String> title = List.of("bench-tag-" + ThreadLocalRandom.current().nextInt(BenchmarkApplication.TAGS));
+
+        tagService.updateAccountTags(account.getId(), title, Collections.emptyList());
+        tagService.updateAccountTags(account.getId(), Collections.emptyList(), title);
+        return account;
+    }
+
+    // 설정 화면에서 내 태그 목록을 읽는 쿼리
+    @Benchmark
+    public List<String> accountTagTitles(BenchmarkApplication application) {
+        return tagRepository.findTitlesByAccountId(application.randomAccount().getId());
+    }
+
+    // 관심사가 같은 회원 찾기: 태그 두 개를 모두 등록한 회원 중 첫 페이지 id
+    @Benchmark
+    public List<Long> searchMembers_and(BenchmarkApplication application) {
+        return searchMembers(application, true);
+    }
+
+    @Benchmark
+    public List<Long> searchMembers_or(BenchmarkApplication application) {
+        return searchMembers(application, false);
+    }
+
+    private List<Long> searchMembers(BenchmarkApplication application, boolean all) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> titles = List.of(application.tagTitles.get(random.nextInt(BenchmarkApplication.TAGS)),
+                application.tagTitles.get(random.nextInt(BenchmarkApplication.TAGS)));
+        Collection<Long> tagIds = tagResolver.find(titles).values();
+        return MemberTagIndex.page(memberTagIndex.find(tagIds, all), 0, 20);
+    }
+
+    // 캐시에 있는 태그 제목 -> id (DB 조회 없음)
+    @Benchmark
+    public Map<String, Long> resolveCached(BenchmarkApplication application) {
+        return tagResolver.resolve(List.of(application.tagTitles.get(ThreadLocalRandom.current().nextInt(BenchmarkApplication.TAGS))));
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return tagSuggestIndex.suggest("tag-" + ThreadLocalRandom.current().nextInt(50), 20);
+    }
+
+    // 인기 태그 상위 10개: 캐시된 결과 / 힙으로 다시 계산 / 매번 account_tags group by
+    @Benchmark
+    public List<TagPopularity.Count> popularTags_cached() {
+        return tagPopularity.top(10);
+    }
+
+    @Benchmark
+    public List<TagPopularity.Count> popularTags_heap() {
+        return tagPopularity.top(TagPopularity.CACHED_TOP + 1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> popularTags_groupBy() {
+        return jdbcTemplate.queryForList(
+                "select tags_id, count(*) members from account_tags group by tags_id order by members desc, tags_id limit 10");
+    }
+}
@@ -0,0 +1,97 @@
+package com.study3355.tag;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 태그 자동완성 색인: 태그 100만 개를 load 로 채운 뒤 접두사 추천, 새 태그 추가(copy-on-write), 전체 다시 만들기
+ * 제목은 소문자 2~4 글자 단어 두 개 (접두사 하나에 걸리는 태그가 많도록), 인기도는 Zipf 분포, DB 없이 색인만 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class TagSuggestBenchmark {
+
+    static final int TAGS = 1_000_000;
+    static final int LIMIT = 10;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Map<String, Integer> popularityByTitle;
+    private List<String> prefixes;
+    private TagSuggestIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        popularityByTitle = new HashMap<>(TAGS * 2);
+        while (popularityByTitle.size() < TAGS) {
+            String title = word(random) + " " + word(random);
+            popularityByTitle.put(title, (int) (TAGS / (1 + random.nextInt(TAGS))));
+        }
+
+        // 실제 있는 제목에서 1~3 글자 접두사
+        List<String> titles = new ArrayList<>(popularityByTitle.keySet());
+        prefixes = new ArrayList<>(1024);
+        for (int i = 0; i < 1024; i++) {
+            String title = titles.get(random.nextInt(titles.size()));
+            prefixes.add(title.substring(0, 1 + random.nextInt(3)));
+        }
+
+        index = new TagSuggestIndex(null, null);
+        index.load(popularityByTitle);
+    }
+
+    // 추가한 태그가 계속 쌓이지 않도록 반복마다 처음 상태로 되돌림
+    @Setup(Level.Iteration)
+    public void reset() {
+        index.load(popularityByTitle);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return index.suggest(prefixes.get(ThreadLocalRandom.current().nextInt(prefixes.size())), LIMIT);
+    }
+
+    // 배열 세 개를 System.arraycopy 로 복사하고 세그먼트 트리를 다시 만듦
+    @Benchmark
+    public int add() {
+        index.add("new-tag-" + sequence.incrementAndGet());
+        return index.size();
+    }
+
+    // 주기적으로 다시 만들 때 드는 비용 (정렬 + 세그먼트 트리)
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int load() {
+        TagSuggestIndex fresh = new TagSuggestIndex(null, null);
+        fresh.load(popularityByTitle);
+        return fresh.size();
+    }
+
+    private static String word(Random random) {
+        int length = 2 + random.nextInt(3);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
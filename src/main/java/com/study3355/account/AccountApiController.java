@@ -0,0 +1,26 @@
+package com.study3355.account;
+
+import com.study3355.api.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class AccountApiController {
+
+    static final String CURSOR_TYPE = "accounts";
+
+    private final AccountRepository accountRepository;
+
+    // GET /accounts?size=20 -> 응답의 next 를 cursor 로 넘겨서 다음 페이지
+    @GetMapping("/accounts")
+    public CursorPage<AccountSummary> accounts(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size) {
+        int pageSize = CursorPage.size(size);
+        long after = CursorPage.after(CURSOR_TYPE, cursor);
+        return CursorPage.of(CURSOR_TYPE, accountRepository.findSummariesAfter(after, CursorPage.fetch(pageSize)),
+                pageSize, AccountSummary::getId);
+    }
+}
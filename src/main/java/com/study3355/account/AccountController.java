@@ -2,8 +2,14 @@ package com.study3355.account;
 
 import com.study3355.domain.Account;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
@@ -13,10 +19,23 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
 
 @Controller
 @RequiredArgsConstructor
@@ -25,11 +44,18 @@ public class AccountController {
     private final SignUpFormValidator signUpFormValidator;
     private final AccountService accountService;
     private final AccountRepository accountRepository;
+    private final ProfilePageCache profilePageCache;
+    private final AccountNameFilter accountNameFilter;
+    private final BoundedPasswordEncoder passwordEncoder;
+    // MVC 비동기 요청에 쓰는 스프링 기본 작업 스레드 (빈 이름으로 주입), 해시가 끝난 뒤 DB 저장은 여기서
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    private static final Pattern NICKNAME_PATTERN = Pattern.compile(SignUpForm.NICKNAME_REGEXP);
 
 
     // 바인딩 된 데이터를 받을 때, 유효성 검증 진행
     // ModelAttribute 의 타입과 InitBinder 의 문자열값과 동일
-    @InitBinder("SignUpForm")
+    @InitBinder("signUpForm")
     public void initBinder(WebDataBinder webDataBinder) {
         webDataBinder.addValidators(signUpFormValidator);
     }
@@ -47,32 +73,54 @@ public class AccountController {
     //validated 는 valid 의 기능을 포함
     // 2) 원래는 (복합)객체로 바인딩 받기 위해선 @ModelAttribute 사용, 생략 가능
     // 3) Errors 바인딩할 때 발생할 수 있는 에러 캐치
+    // 4) 비밀번호 해시는 해시 작업 스레드에서 하고 요청 스레드는 바로 반납 (DeferredResult)
+    //    해시가 끝나면 저장은 applicationTaskExecutor 에서 (DB 가 느려도 해시 작업 스레드를 잡고 있지 않음)
+    //    SecurityContextHolder 는 요청 스레드의 것이 아니므로 세션에 직접 로그인 정보 저장
     @PostMapping("/sign-up")
-    public String signUpSubmit(@Valid SignUpForm signUpForm,
-                               Errors errors) {
+    public DeferredResult<String> signUpSubmit(@Valid SignUpForm signUpForm,
+                                               Errors errors, HttpSession session) {
+        DeferredResult<String> result = new DeferredResult<>();
+
         // (유효성검사)에러가 있을 시, form 을 다시 보여줌
         if (errors.hasErrors()) {
-            return "account/sign-up";
+            result.setResult("account/sign-up");
+            return result;
         } // front 단에서만 진행되는 유효성 검증은 뚫릴 수 있음.(javascript 조작) 따라서 서버단에서도 검증해야함
 
-        Account account = accountService.processNewAccount(signUpForm);
-        accountService.login(account);
-
+        try {
+            passwordEncoder.encodeAsync(signUpForm.getPassword())
+                    .thenApplyAsync(encodedPassword -> accountService.processNewAccount(signUpForm, encodedPassword),
+                            applicationTaskExecutor)
+                    .whenComplete((account, e) -> {
+                        if (e != null) {
+                            result.setErrorResult(e instanceof CompletionException ? e.getCause() : e);
+                            return;
+                        }
+                        SecurityContext context = SecurityContextHolder.createEmptyContext();
+                        context.setAuthentication(accountService.authentication(account));
+                        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+                        result.setResult("redirect:/");
+                    });
+        } catch (RejectedExecutionException e) {
+            result.setErrorResult(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "가입 요청이 많습니다. 잠시 후 다시 시도하세요."));
+        }
+        return result;
+    }
 
-        // TODO 회원 가입 처리
-        return "redirect:/";
+    // 회원 가입 화면에서 입력하는 동안 닉네임 사용 가능 여부 확인, 대부분 DB 조회 없이 Bloom filter 로 응답
+    @GetMapping("/check-nickname")
+    @ResponseBody
+    public Map<String, Object> checkNickname(@RequestParam String nickname) {
+        boolean available = NICKNAME_PATTERN.matcher(nickname).matches() && !accountNameFilter.isNicknameTaken(nickname);
+        return Map.of("nickname", nickname, "available", available);
     }
 
     @GetMapping("/check-email-token")
-    public String checkEmailToken(String token, String email, Model model) {
-        Account account = accountRepository.findByEmail(email);
+    public String checkEmailToken(String token, Model model) {
+        // 서명된 토큰에 계정 id 가 들어있으므로 이메일로 찾지 않음, 잘못된 토큰은 DB 조회 없이 거절
+        Account account = accountService.findBySignUpToken(token).orElse(null);
         String view = "account/checked-email";
         if (account == null) {
-            model.addAttribute("error", "wrong.email");
-            return view;
-        }
-        // (리팩토링) 로직 메서드화를 통해 긴 코드를 간결화
-        if (!account.isValidToken(token)) {
             model.addAttribute("error", "wrong.token");
             return view;
         }
@@ -85,9 +133,9 @@ public class AccountController {
         // 객체의 변경사항이 db에 적용 안됨.
         // 영속성 컨텍스트 db에서 읽어오는 persist한 객체를 관리하는 객체*/
 
-        accountService.completeSignUp(account);
+        long numberOfUser = accountService.completeSignUp(account);
 
-        model.addAttribute("numberOfUser", accountRepository.count()); // 몇번째 유저인가
+        model.addAttribute("numberOfUser", numberOfUser); // 몇번째 유저인가, count(*) 대신 MemberCounter
         model.addAttribute("nickname", account.getNickname());
 
         return view;
@@ -101,26 +149,48 @@ public class AccountController {
 
     @GetMapping("/resend-confirm-email")
     public String resendConfirmEmail(@CurrentUser Account account, Model model) {
-        if (!account.canSendConfirmEmail()) {
-            model.addAttribute("error", "인증 이메일은 1시간에 한번만 전송할 수 있습니다.");
-            model.addAttribute("email", account.getEmail());
-            return "account/check-email";
-        }
-
         accountService.sendSignUpConfirmEmail(account);
         return "redirect:/";
     }
 
+    // 계정 버전으로 ETag 를 만들어서, 바뀌지 않았으면 엔티티를 읽지 않고 304 응답
+    // 로그인하지 않은 사용자에게는 렌더링해 둔 페이지를 그대로 보냄
     @GetMapping("/profile/{nickname}")
-    public String viewProfile(@PathVariable String nickname, Model model, @CurrentUser Account account) {
-        Account byNickname = accountRepository.findByNickname(nickname);
-        if (byNickname == null) {
+    public ModelAndView viewProfile(@PathVariable String nickname, Model model, @CurrentUser UserAccount userAccount,
+                                    ServletWebRequest request) {
+        AccountVersion version = accountRepository.findVersionByNickname(nickname);
+        if (version == null) {
             throw new IllegalAccessError(nickname + "에 해당하는 사용자가 없습니다.");
         }
 
+        // 보는 사람에 따라 화면(네비게이션 바, 내 프로필 여부)이 다르므로 보는 사람도 ETag 에 포함
+        String eTag = "\"p" + version.getId() + "-" + version.getVersion()
+                + (userAccount == null ? "" : "-u" + userAccount.getId() + "-" + userAccount.getVersion()) + "\"";
+        long lastModified = version.getUpdatedAt() == null ? -1
+                : version.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // 캐시해도 되지만 매번 서버에 확인하도록 함 (시큐리티 기본값인 no-store 대신)
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+
+        if (userAccount == null) {
+            View cached = profilePageCache.cached(nickname, version.getVersion());
+            if (cached != null) {
+                return new ModelAndView(cached);
+            }
+        }
+
+        Account byNickname = accountRepository.findByNickname(nickname);
         model.addAttribute("account", byNickname);
-        model.addAttribute("isOwner", byNickname.equals(account));
-        return "account/profile";
+        model.addAttribute("isOwner", userAccount != null && byNickname.getId().equals(userAccount.getId()));
+
+        if (userAccount == null) {
+            return new ModelAndView(profilePageCache.rendering("account/profile", nickname, version.getVersion()));
+        }
+        return new ModelAndView("account/profile");
     }
 
     @GetMapping("/email-login")
@@ -137,25 +207,18 @@ public class AccountController {
             return "account/email-login";
         }
 
-        if (!account.canSendConfirmEmail()) {
-            model.addAttribute("error", "이메일 로그인은 1시간 뒤에 사용할 수 있습니다.");
-            //return "account/email-login";
-        }
-
         accountService.sendLoginLink(account);
         attributes.addFlashAttribute("message", "이메일 인증 메일을 발송했습니다.");
         return "redirect:/email-login";
     }
 
     @GetMapping("/login-by-email")
-    public String loginByEmail(String token, String email, Model model) {
-        Account account = accountRepository.findByEmail(email);
+    public String loginByEmail(String token, Model model) {
         String view = "account/logged-in-by-email";
-        if (account == null || !account.isValidToken(token)) {
+        if (accountService.loginByEmailToken(token).isEmpty()) {
             model.addAttribute("error","로그인할 수 없습니다.");
             return view;
         }
-        accountService.login(account);
         return view;
     }
 
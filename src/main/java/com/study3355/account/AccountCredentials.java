@@ -0,0 +1,25 @@
+package com.study3355.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 로그인에 필요한 컬럼만 읽어온 결과 (프로필, 알림 설정, 태그 등은 읽지 않음)
+// 캐시에 그대로 들어가므로 불변
+@Getter
+@AllArgsConstructor
+public class AccountCredentials {
+
+    private final Long id;
+
+    private final String email;
+
+    private final String nickname;
+
+    private final String password;
+
+    private final boolean emailVerified;
+
+    private final boolean admin;
+
+    private final Long version;
+}
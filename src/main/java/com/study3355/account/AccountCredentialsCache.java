@@ -0,0 +1,82 @@
+package com.study3355.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 로그인(폼 로그인, remember-me 자동 로그인)할 때마다 계정을 읽지 않도록 인증 정보를 잠깐 캐시
+ * key 는 사용자가 입력한 이메일 또는 닉네임
+ * 패스워드/닉네임이 바뀌거나 같은 이메일/닉네임으로 새 계정이 만들어지면 해당 key 를 지움
+ * 다른 서버에서 바뀐 내용은 TTL 이 지나면 반영됨
+ */
+@Component
+public class AccountCredentialsCache {
+
+    static final String CACHE_NAME = "account.credentials";
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, AccountCredentials> cache;
+    private final Timer lookupTimer;
+
+    public AccountCredentialsCache(AccountRepository accountRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.account.credentials-cache.max-size:10000}") long maxSize,
+                                   @Value("${app.account.credentials-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.accountRepository = accountRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss} 로 적중률 확인
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.lookupTimer = Timer.builder(CACHE_NAME + ".lookup")
+                .description("이메일 또는 닉네임으로 인증 정보를 찾는 데 걸린 시간 (캐시 포함)")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // 없는 계정은 캐시하지 않음
+    public Optional<AccountCredentials> find(String emailOrNickname) {
+        return Optional.ofNullable(lookupTimer.record(() -> cache.get(emailOrNickname, this::load)));
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋 후에 한 번 더 지움 (커밋 전에 다른 요청이 예전 값을 다시 캐시할 수 있으므로)
+    public void evict(String... emailOrNicknames) {
+        List<String> keys = Stream.of(emailOrNicknames).filter(Objects::nonNull).collect(Collectors.toList());
+        cache.invalidateAll(keys);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    private AccountCredentials load(String emailOrNickname) {
+        List<AccountCredentials> found = accountRepository.findCredentials(emailOrNickname);
+        // 닉네임에는 @ 를 쓸 수 없어서 보통 한 건, 혹시 둘 다 나오면 이메일이 같은 쪽
+        return found.stream()
+                .filter(credentials -> emailOrNickname.equals(credentials.getEmail()))
+                .findFirst()
+                .orElse(found.isEmpty() ? null : found.get(0));
+    }
+}
@@ -0,0 +1,152 @@
+package com.study3355.account;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * 이메일/닉네임 중복 확인
+ * 사용 중인 이메일, 닉네임을 Bloom filter 에 넣어두고 filter 에 없으면 DB 를 조회하지 않고 바로 "사용 가능"
+ * filter 에 있다고 나오면(실제로 있거나 오탐) 그때만 DB 에서 확인
+ * 대소문자, 앞뒤 공백을 정규화해서 넣으므로 filter 는 항상 DB 보다 넓게 잡힘 -> "없음" 은 틀리지 않음
+ * 닉네임 변경 등으로 더 이상 쓰지 않는 값은 filter 에서 뺄 수 없으므로 주기적으로 다시 만듦
+ * 다른 서버에서 가입한 계정은 다시 만들 때까지 반영되지 않음 -> 그 경우에도 DB unique 제약조건이 최종적으로 막음
+ */
+@Slf4j
+@Component
+public class AccountNameFilter {
+
+    private static final String EMAIL = "e:";
+    private static final String NICKNAME = "n:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountRepository accountRepository;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+
+    private volatile BloomFilter filter; // null 이면 아직 만들지 않음 -> 항상 DB 확인
+    private volatile BloomFilter building; // 다시 만드는 동안 추가된 값도 새 filter 에 넣기 위함
+    // 다시 만들기 직전에 추가되었지만 아직 커밋되지 않아서 조회되지 않은 값이 있을 수 있으므로 이전 filter 도 한 주기 동안 같이 확인
+    private volatile BloomFilter previous;
+    private long count;
+
+    private final Counter skippedCounter;
+    private final Counter checkedCounter;
+    private final Counter falsePositiveCounter;
+
+    public AccountNameFilter(JdbcTemplate jdbcTemplate,
+                             AccountRepository accountRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.account-name-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${app.account-name-filter.min-capacity:100000}") long minCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountRepository = accountRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+
+        this.skippedCounter = Counter.builder("account.name.filter").tag("result", "free").register(meterRegistry);
+        this.checkedCounter = Counter.builder("account.name.filter").tag("result", "db-check").register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("account.name.filter").tag("result", "false-positive").register(meterRegistry);
+    }
+
+    public boolean isEmailTaken(String email) {
+        if (!mightContain(EMAIL, email)) {
+            return false;
+        }
+        return checked(accountRepository.existsByEmail(email));
+    }
+
+    public boolean isNicknameTaken(String nickname) {
+        if (!mightContain(NICKNAME, nickname)) {
+            return false;
+        }
+        return checked(accountRepository.existsByNickname(nickname));
+    }
+
+    public void addEmail(String email) {
+        add(EMAIL, email);
+    }
+
+    public void addNickname(String nickname) {
+        add(NICKNAME, nickname);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long accounts = jdbcTemplate.queryForObject("select count(*) from account", Long.class);
+        // 계정 하나당 이메일 + 닉네임, 다음에 다시 만들 때까지 늘어날 것을 고려해서 두 배
+        BloomFilter next = new BloomFilter(Math.max(minCapacity, accounts * 4), falsePositiveRate);
+        this.building = next;
+        jdbcTemplate.query("select email, nickname from account", (RowCallbackHandler) rs -> {
+            addTo(next, EMAIL, rs.getString(1));
+            addTo(next, NICKNAME, rs.getString(2));
+        });
+        this.previous = this.filter;
+        this.filter = next;
+        this.building = null;
+        this.count = accounts * 2;
+        log.info("이메일/닉네임 Bloom filter 생성: 계정 {}개, {} KB", accounts, next.sizeInBytes() / 1024);
+    }
+
+    // 닉네임 변경으로 남은 값 정리, 가입자가 늘어서 예상 크기를 넘으면 오탐이 늘어나므로 크기도 다시 잡음
+    @Scheduled(initialDelayString = "${app.account-name-filter.rebuild-millis:3600000}",
+            fixedDelayString = "${app.account-name-filter.rebuild-millis:3600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    private boolean mightContain(String type, String value) {
+        BloomFilter current = this.filter;
+        BloomFilter old = this.previous;
+        if (current == null || value == null
+                || current.mightContain(type + normalize(value))
+                || (old != null && old.mightContain(type + normalize(value)))) {
+            checkedCounter.increment();
+            return true;
+        }
+        skippedCounter.increment();
+        return false;
+    }
+
+    private boolean checked(boolean taken) {
+        if (!taken) {
+            falsePositiveCounter.increment();
+        }
+        return taken;
+    }
+
+    private void add(String type, String value) {
+        BloomFilter current = this.filter;
+        if (current != null) {
+            addTo(current, type, value);
+            synchronized (this) {
+                if (++count > current.expectedInsertions()) {
+                    log.warn("Bloom filter 예상 크기({})를 넘었습니다. 다음 재생성 때 크기를 다시 잡습니다.", current.expectedInsertions());
+                }
+            }
+        }
+        BloomFilter next = this.building;
+        if (next != null) {
+            addTo(next, type, value);
+        }
+    }
+
+    private static void addTo(BloomFilter target, String type, String value) {
+        if (value != null) {
+            target.add(type + normalize(value));
+        }
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,9 +1,16 @@
 package com.study3355.account;
 
 import com.study3355.domain.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 @Transactional(readOnly = true)
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
@@ -14,4 +21,55 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     Account findByEmail(String email);
 
     Account findByNickname(String nickname);
+
+    // 대량 등록할 때 이미 있는 이메일/닉네임을 한 번에 확인
+    @Query("select a.email from Account a where a.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select a.nickname from Account a where a.nickname in :nicknames")
+    List<String> findExistingNicknames(@Param("nicknames") Collection<String> nicknames);
+
+    // 로그인용, 이메일과 닉네임 둘 다 unique 인덱스가 있으므로 한 번의 조회로 찾음 (Lob, 연관관계는 읽지 않음)
+    @Query("select new com.study3355.account.AccountCredentials(a.id, a.email, a.nickname, a.password, a.emailVerified, a.admin, a.version) " +
+            "from Account a where a.email = :key or a.nickname = :key")
+    List<AccountCredentials> findCredentials(@Param("key") String emailOrNickname);
+
+    // 관리자 권한 부여, 이미 관리자인 계정은 건너뜀
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.admin = true where a.email in :emails and a.admin = false")
+    int grantAdmin(@Param("emails") Collection<String> emails);
+
+    // 로그인 링크 사용 처리, 토큰 버전이 같을 때만 올림 -> 같은 링크로 동시에 요청해도 한 번만 성공
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.tokenVersion = a.tokenVersion + 1 where a.id = :id and a.tokenVersion = :tokenVersion")
+    int consumeTokenVersion(@Param("id") Long id, @Param("tokenVersion") int tokenVersion);
+
+    // 프로필 페이지 조건부 요청(ETag, Last-Modified) 확인용, 바뀌지 않았으면 엔티티를 읽지 않고 304
+    @Query("select new com.study3355.account.AccountVersion(a.id, a.version, a.updatedAt) " +
+            "from Account a where a.nickname = :nickname")
+    AccountVersion findVersionByNickname(@Param("nickname") String nickname);
+
+    // 회원 목록 API, id 다음부터 pageable 크기만큼 (keyset)
+    @Query("select new com.study3355.account.AccountSummary(a.id, a.nickname, a.bio, a.occupation, a.location, a.url, " +
+            "a.profileImageThumbnail) from Account a where a.id > :after order by a.id")
+    List<AccountSummary> findSummariesAfter(@Param("after") long after, Pageable pageable);
+
+    // 검색 결과(회원 id 목록)를 목록 API 와 같은 형태로
+    @Query("select new com.study3355.account.AccountSummary(a.id, a.nickname, a.bio, a.occupation, a.location, a.url, " +
+            "a.profileImageThumbnail) from Account a where a.id in :ids order by a.id")
+    List<AccountSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 이미지 처리 작업 스레드에서 호출, 엔티티를 읽지 않고 이미지 URL 컬럼만 갱신
+    // 이미 더 나중에 요청한 이미지(sequence 가 큰 쪽)가 저장되어 있으면 바꾸지 않음 (0 반환)
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.profileImage = :profileImage, a.profileImageThumbnail = :thumbnail, " +
+            "a.profileImageSequence = :sequence, a.version = a.version + 1, a.updatedAt = current_timestamp " +
+            "where a.id = :id and (a.profileImageSequence is null or a.profileImageSequence < :sequence)")
+    int updateProfileImage(@Param("id") Long id,
+                           @Param("profileImage") String profileImage,
+                           @Param("thumbnail") String thumbnail,
+                           @Param("sequence") long sequence);
 }
@@ -1,43 +1,60 @@
 package com.study3355.account;
 
 import com.study3355.domain.Account;
-import com.study3355.domain.Tag;
+import com.study3355.image.ProfileImagePipeline;
+import com.study3355.mail.MailOutbox;
+import com.study3355.search.ProfileIndexer;
+import com.study3355.settings.form.AccountFormMapper;
 import com.study3355.settings.form.Notifications;
 import com.study3355.settings.form.Profile;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.NameTokenizers;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 데이터 변경은 서비스 계층으로 위임해서 트랜잭션 안에서 처리
  * 데이터 조회는 레파지톨리 또는 서비스 사용
  * 데이터를 조회하는 것은 굳이 트랜잭션이 없어도 됨. 그래서 view를 렌더링할때 LAZY 로딩 가능
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
 
     private final AccountRepository accountRepository;
-    private final JavaMailSender javaMailSender;
+    private final MailOutbox mailOutbox;
     private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final ProfileImagePipeline profileImagePipeline;
+    private final AccountCredentialsCache accountCredentialsCache;
+    private final ProfilePageCache profilePageCache;
+    private final AccountNameFilter accountNameFilter;
+    private final MemberCounter memberCounter;
+    private final EmailTokenSigner emailTokenSigner;
+    private final ProfileIndexer profileIndexer;
+
+    // 회원별로 마지막에 요청한 프로필 이미지의 번호 -> 처리가 늦게 끝난 예전 이미지가 새 이미지를 덮어쓰지 않도록 함
+    // 번호는 현재 시각(ms)보다 작지 않게 늘려서 재시작하거나 서버가 여러 대여도 DB 에 저장된 번호와 비교할 수 있음
+    private final AtomicLong imageSequence = new AtomicLong();
+    private final ConcurrentMap<Long, Long> latestImageRequests = new ConcurrentHashMap<>();
 
     // manager 주입을 받기위해선 security config 설정을 바꿔줘야함.
     //private final AuthenticationManager authenticationManager;
@@ -45,23 +62,35 @@ public class AccountService implements UserDetailsService {
     // JPA persist, JPA detached 상태가 주는 영향(버그) -> detached 객체는 떨어져 있는 객체
     // save가 끝난 이후이기 때문에 Transactional 범위를 벗어난 상태
     public Account processNewAccount(SignUpForm signUpForm) {
-        Account newAccount = saveNewAccount(signUpForm);
-        newAccount.generateEmailCheckToken();
+        return processNewAccount(signUpForm, passwordEncoder.encode(signUpForm.getPassword()));
+    }
+
+    // 비밀번호는 이미 해시한 값 (회원 가입 화면은 해시 작업 스레드에서 해시한 뒤 호출)
+    public Account processNewAccount(SignUpForm signUpForm, String encodedPassword) {
+        Account newAccount = saveNewAccount(signUpForm, encodedPassword);
         sendSignUpConfirmEmail(newAccount);
 
         return newAccount;
     }
 
     public Account saveNewAccount(SignUpForm signUpForm) {
+        return saveNewAccount(signUpForm, passwordEncoder.encode(signUpForm.getPassword()));
+    }
+
+    private Account saveNewAccount(SignUpForm signUpForm, String encodedPassword) {
         Account account = Account.builder()
                 .email(signUpForm.getEmail())
                 .nickname(signUpForm.getNickname())
-                .password(passwordEncoder.encode(signUpForm.getPassword())) // TODO encoding
+                .password(encodedPassword)
                 .studyCreatedByWeb(true)
                 .studyEnrollmentResultByWeb(true)
                 .studyUpdatedByWeb(true)
                 .build();
 
+        // 같은 이메일/닉네임으로 예전에 캐시된 (지워진) 계정이 있을 수 있음
+        accountCredentialsCache.evict(account.getEmail(), account.getNickname());
+        accountNameFilter.addEmail(account.getEmail());
+        accountNameFilter.addNickname(account.getNickname());
         return accountRepository.save(account);
     }
 
@@ -71,23 +100,17 @@ public class AccountService implements UserDetailsService {
         mailMessage.setTo(newAccount.getEmail());
         mailMessage.setSubject("삼삼오오, 회원 가입 인증"); // 메일의 제목
         mailMessage.setText(
-                "/check-email-token?token=" + newAccount.getEmailCheckToken()
-                        + "&email=" + newAccount.getEmail()
-        ); // 메일의 본문
+                "/check-email-token?token=" + emailTokenSigner.issue(newAccount, EmailTokenSigner.Purpose.SIGN_UP)
+        ); // 메일의 본문, 토큰은 서명만 하고 저장하지 않음
 
-        javaMailSender.send(mailMessage); // 심플 메일 전송
+        mailOutbox.enqueue(mailMessage); // 같은 트랜잭션에서 outbox 에 저장, 발송은 MailDispatcher 가 처리
     }
 
 
     public void login(Account account) {
         // 실제로 AuthenticationManager 와 같은 동작
-        UsernamePasswordAuthenticationToken token =
-                new UsernamePasswordAuthenticationToken(
-                        new UserAccount(account),
-                        account.getPassword(),
-                        List.of(new SimpleGrantedAuthority("Role_USER")));
         SecurityContext context = SecurityContextHolder.getContext();
-        context.setAuthentication(token);
+        context.setAuthentication(authentication(account));
 
         // 정석 방법 - 쓰지 않는 이유: 우리는 Password text 를 db에 저장하지 않을거며, 사용하지 않을 거임, 즉 인코딩된 패스워드 사용
         /*        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(username, password); // 사용자가 입력한 username,password
@@ -98,32 +121,41 @@ public class AccountService implements UserDetailsService {
 
     }
 
-    @Transactional(readOnly = true)
+    // 세션에 저장되므로 패스워드는 지우고 principal 만 저장
+    // 요청 스레드가 아닌 곳에서 로그인 처리할 때는 이 값으로 SecurityContext 를 만들어서 세션에 직접 저장
+    public Authentication authentication(Account account) {
+        UserAccount userAccount = new UserAccount(account);
+        userAccount.eraseCredentials();
+        return new UsernamePasswordAuthenticationToken(userAccount, null, userAccount.getAuthorities());
+    }
+
+    // 캐시에 있으면 트랜잭션(커넥션)을 시작하지 않음
+    @Transactional(propagation = Propagation.SUPPORTS)
     @Override
     public UserDetails loadUserByUsername(String emailOrUsername) throws UsernameNotFoundException {
 
-        Account account = accountRepository.findByEmail(emailOrUsername);
-
-        if(account == null) {
-            account = accountRepository.findByNickname(emailOrUsername);
-        }
-
-        if(account == null) {
-            throw new UsernameNotFoundException(emailOrUsername);
-        }
+        AccountCredentials credentials = accountCredentialsCache.find(emailOrUsername)
+                .orElseThrow(() -> new UsernameNotFoundException(emailOrUsername));
 
         // Principal 에 해당하는 객체 반환
-        return new UserAccount(account);
+        // 인증이 끝나면 시큐리티가 eraseCredentials 로 패스워드를 지우므로 캐시에는 불변 객체를 두고 매번 새로 만듦
+        return new UserAccount(credentials);
     }
 
-    public void completeSignUp(Account account) {
+    // 몇 번째로 인증을 마친 회원인지 반환, 이미 인증한 링크를 다시 누른 경우는 세지 않음
+    public long completeSignUp(Account account) {
+        boolean firstTime = !account.isEmailVerified();
         account.completeSignUp();
+        accountCredentialsCache.evict(account.getEmail(), account.getNickname()); // 이메일 인증 여부 변경
         login(account);
+        return firstTime ? memberCounter.increment() : memberCounter.current();
     }
 
     public void updateProfile(Account account, Profile profile) {
 
-        modelMapper.map(profile,account);
+        // 이미지는 updateProfileImage 에서 따로 처리하므로 기존 이미지 URL 유지 (이미지는 옮기지 않음)
+        AccountFormMapper.copy(profile, account);
+        profilePageCache.evict(account.getNickname());
 
         /*account.setUrl(profile.getUrl());
         account.setBio(profile.getBio());
@@ -132,12 +164,58 @@ public class AccountService implements UserDetailsService {
         // TODO 프로필 이미지
         account.setProfileImage(profile.getProfileImage());*/
         accountRepository.save(account);
+        profileIndexer.enqueue(account.getId()); // 커밋 후 검색 색인에 반영
+    }
+
+    // 이미지 처리는 오래 걸리므로 작업 스레드에 맡기고 바로 반환, 처리가 끝나면 URL 컬럼만 갱신
+    // 처리 대기열이 가득 찬 경우 false
+    // 같은 회원이 연달아 올리면 먼저 끝난 순서가 아니라 마지막에 올린 이미지만 저장
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean updateProfileImage(Account account, String dataUrl) {
+        Long accountId = account.getId();
+        long sequence = imageSequence.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+        latestImageRequests.put(accountId, sequence);
+        try {
+            profileImagePipeline.submit(dataUrl)
+                    .thenAccept(image -> {
+                        // 그 사이에 새 이미지를 올렸으면 저장하지 않음
+                        if (!latestImageRequests.remove(accountId, sequence)) {
+                            return;
+                        }
+                        // 새 요청이 먼저 저장된 경우는 DB 에서 번호를 비교해서 건너뜀
+                        accountRepository.updateProfileImage(accountId, image.getProfileImage(), image.getThumbnail(), sequence);
+                    })
+                    .exceptionally(e -> {
+                        latestImageRequests.remove(accountId, sequence);
+                        log.warn("account {} 의 프로필 이미지를 저장하지 못했습니다.", accountId, e);
+                        return null;
+                    });
+            return true;
+        } catch (RejectedExecutionException e) {
+            latestImageRequests.remove(accountId, sequence);
+            return false;
+        }
     }
 
     public void updatePassword(Account account, String newPassword) {
-        account.setPassword(passwordEncoder.encode(newPassword));
+        updateEncodedPassword(account, passwordEncoder.encode(newPassword));
+    }
+
+    public void updateEncodedPassword(Account account, String encodedPassword) {
+        account.setPassword(encodedPassword);
 
         accountRepository.save(account);
+        accountCredentialsCache.evict(account.getEmail(), account.getNickname());
+    }
+
+    // 저장된 해시의 bcrypt cost 가 지금 설정과 다르면, 로그인에 성공했을 때 시큐리티가 새로 해시해서 호출
+    // 반환한 값이 principal 이 되므로 UserAccount 로 돌려줌
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Account account = accountRepository.findByNickname(user.getUsername());
+        account.setPassword(newPassword);
+        accountCredentialsCache.evict(account.getEmail(), account.getNickname());
+        return new UserAccount(account);
     }
 
     public void updateNotifications(Account account, Notifications notifications) {
@@ -148,51 +226,47 @@ public class AccountService implements UserDetailsService {
         account.setStudyEnrollmentResultByEmail(notifications.isStudyEnrollmentResultByEmail());
         account.setStudyEnrollmentResultByWeb(notifications.isStudyEnrollmentResultByWeb());*/
 
-        // 하지만 modelMapper 가 가끔 카멜표기 같은 필드이름들을 잘 못찾는 경우가 있음
-       modelMapper.map(notifications,account);
-
-       // 따라서 몇 가지 설정 필요
-        ModelMapper modelMapper = new ModelMapper();
-
-        // 이름이 underscore 가 아니면 하나의 프로퍼티로 간주
-        modelMapper.getConfiguration()
-                        .setDestinationNameTokenizer(NameTokenizers.UNDERSCORE)
-                                .setSourceNameTokenizer(NameTokenizers.UNDERSCORE);
+        // ModelMapper 는 카멜표기 필드 이름을 잘못 맞추는 경우가 있었고 호출마다 리플렉션 비용이 있어서 직접 옮김
+        AccountFormMapper.copy(notifications, account);
 
         accountRepository.save(account);
     }
 
     public void updateNickname(Account account, String nickname) {
+        String oldNickname = account.getNickname();
         account.setNickname(nickname);
+        accountNameFilter.addNickname(nickname);
         accountRepository.save(account);
+        accountCredentialsCache.evict(account.getEmail(), oldNickname, nickname);
+        profilePageCache.evict(oldNickname, nickname);
         login(account);
     }
 
     public void sendLoginLink(Account account) {
-        account.generateEmailCheckToken();
         SimpleMailMessage mailMessage = new SimpleMailMessage();
         mailMessage.setTo(account.getEmail());
         mailMessage.setSubject("스터디 올래, 로그인 링크");
-        mailMessage.setText("/login-by-email?token=" + account.getEmailCheckToken() +
-                "&email=" + account.getEmail());
-        javaMailSender.send(mailMessage);
+        mailMessage.setText("/login-by-email?token=" + emailTokenSigner.issue(account, EmailTokenSigner.Purpose.LOGIN));
+        mailOutbox.enqueue(mailMessage);
     }
 
-    public void addTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId()); // EAGER fetch
-        byId.ifPresent(a -> a.getTags().add(tag));
-
-        // repository.getOne() -> LAZY 로딩, 필요한 순간에만 읽어옴.
+    // 서명이 맞지 않거나 만료된 토큰은 DB 를 조회하지 않음
+    public Optional<Account> findBySignUpToken(String token) {
+        return emailTokenSigner.verify(token, EmailTokenSigner.Purpose.SIGN_UP)
+                .flatMap(claims -> accountRepository.findById(claims.getAccountId())
+                        .filter(account -> account.getTokenVersion() == claims.getTokenVersion()));
     }
 
-    public Set<Tag> getTags(Account account) {
-
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        return byId.orElseThrow().getTags();
-    }
+    // 로그인 링크는 한 번만 사용할 수 있음, 사용하면 토큰 버전을 올려서 이전에 보낸 링크도 모두 무효화
+    public Optional<Account> loginByEmailToken(String token) {
+        Optional<EmailTokenSigner.Claims> claims = emailTokenSigner.verify(token, EmailTokenSigner.Purpose.LOGIN);
+        if (claims.isEmpty()
+                || accountRepository.consumeTokenVersion(claims.get().getAccountId(), claims.get().getTokenVersion()) != 1) {
+            return Optional.empty();
+        }
 
-    public void removeTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getTags().remove(tag));
+        Optional<Account> account = accountRepository.findById(claims.get().getAccountId());
+        account.ifPresent(this::login);
+        return account;
     }
 }
@@ -0,0 +1,24 @@
+package com.study3355.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 회원 목록 API 응답, 프로필 화면에 공개되는 컬럼만 읽음 (이메일, 비밀번호, 알림 설정, 태그는 읽지 않음)
+@Getter
+@AllArgsConstructor
+public class AccountSummary {
+
+    private final Long id;
+
+    private final String nickname;
+
+    private final String bio;
+
+    private final String occupation;
+
+    private final String location;
+
+    private final String url;
+
+    private final String profileImageThumbnail;
+}
@@ -0,0 +1,18 @@
+package com.study3355.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// 프로필 페이지가 바뀌었는지 확인하기 위해 읽는 값 (ETag, Last-Modified)
+@Getter
+@AllArgsConstructor
+public class AccountVersion {
+
+    private final Long id;
+
+    private final Long version;
+
+    private final LocalDateTime updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.study3355.account;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * app.admin.emails(쉼표로 구분)에 적은 계정에 관리자 권한(ROLE_ADMIN) 부여 -> /admin 관리 기능 (SecurityConfig)
+ * 기동할 때 반영하므로 아직 가입하지 않은 이메일은 가입한 뒤 다시 시작해야 함, 권한을 뺄 때는 DB 에서 직접 admin = false
+ */
+@Slf4j
+@Component
+public class AdminAccounts {
+
+    private final AccountRepository accountRepository;
+    private final AccountCredentialsCache accountCredentialsCache;
+    private final List<String> emails;
+
+    public AdminAccounts(AccountRepository accountRepository,
+                         AccountCredentialsCache accountCredentialsCache,
+                         @Value("${app.admin.emails:}") String[] emails) {
+        this.accountRepository = accountRepository;
+        this.accountCredentialsCache = accountCredentialsCache;
+        this.emails = Arrays.stream(emails).map(String::trim).filter(email -> !email.isEmpty()).collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!emails.isEmpty()) {
+            log.info("관리자 권한 부여: {}명", grant(emails));
+        }
+    }
+
+    // 로그인 캐시에 권한이 없는 인증 정보가 남지 않도록 지움 (이미 로그인한 세션은 다시 로그인해야 반영)
+    public int grant(Collection<String> emails) {
+        int granted = accountRepository.grantAdmin(emails);
+        accountCredentialsCache.evict(emails.toArray(new String[0]));
+        return granted;
+    }
+}
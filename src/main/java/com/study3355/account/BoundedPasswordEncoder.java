@@ -0,0 +1,215 @@
+package com.study3355.account;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * bcrypt 해시를 전용 작업 스레드(코어 수 만큼)에서만 계산하는 PasswordEncoder
+ * 회원 가입이나 로그인이 몰려도 해시 계산이 톰캣 요청 스레드를 모두 잡아먹지 않고, 대기열이 가득 차면 바로 거절 (backpressure)
+ * 기동할 때 이 서버에서 한 번 해시하는 데 목표 시간 정도 걸리는 cost 를 측정해서 사용
+ * 폼 로그인의 matches 는 요청 스레드가 결과를 기다려야 하므로(시큐리티 API 가 동기) 기다리는 스레드 수를 maxWaiting 으로 제한
+ * 저장된 해시의 cost 가 다르면 upgradeEncoding 이 true -> 로그인할 때 시큐리티가 다시 해시해서 저장 (AccountService.updatePassword)
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\{bcrypt}\\$2[abxy]?\\$(\\d{2})\\$");
+
+    // 측정은 빨리 끝나는 cost 로 하고, cost 가 1 오를 때마다 시간이 2배가 되는 것으로 추정
+    private static final int CALIBRATION_STRENGTH = 8;
+
+    private final int strength;
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int maxWaiting;
+    private final Semaphore waiting;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this(strength, threads, queueCapacity, threads + queueCapacity, meterRegistry);
+    }
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, int maxWaiting, MeterRegistry meterRegistry) {
+        this.strength = strength;
+        this.maxWaiting = maxWaiting;
+        this.waiting = new Semaphore(maxWaiting);
+
+        // 새로 저장하는 해시는 정해진 cost 의 bcrypt, 예전 형식({noop}, {pbkdf2} 등)은 기본 인코더로 비교만 함
+        DelegatingPasswordEncoder delegating =
+                new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        delegating.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        this.delegate = delegating;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hash")
+                .description("비밀번호 해시 계산 시간")
+                .tag("operation", "encode")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash")
+                .description("비밀번호 해시 계산 시간")
+                .tag("operation", "matches")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hash.wait")
+                .description("해시 작업이 대기열에서 기다린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected").register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.waiting", this, BoundedPasswordEncoder::getWaiting).register(meterRegistry);
+        Gauge.builder("password.bcrypt.strength", () -> strength).register(meterRegistry);
+
+        log.info("bcrypt cost {}, 해시 작업 스레드 {}개, 대기열 {}, 기다리는 요청 스레드 최대 {}개",
+                strength, threads, queueCapacity, maxWaiting);
+    }
+
+    /**
+     * 한 번 해시하는 데 targetMillis 를 넘지 않는 가장 큰 cost (minStrength ~ maxStrength)
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        for (int i = 0; i < 3; i++) {
+            probe.encode("calibration"); // JIT 워밍업
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double millis = best / 1_000_000.0;
+        int strength = CALIBRATION_STRENGTH;
+        while (strength < maxStrength && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        int calibrated = Math.max(minStrength, strength);
+        log.info("bcrypt cost 측정: cost {} 에서 {}ms -> cost {} (목표 {}ms)",
+                CALIBRATION_STRENGTH, best / 1_000_000, calibrated, targetMillis);
+        return calibrated;
+    }
+
+    /**
+     * 해시 작업 스레드에서 인코딩, 요청 스레드는 기다리지 않아도 됨
+     * @throws RejectedExecutionException 대기열이 가득 찬 경우
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * 호출한 스레드가 결과를 기다림
+     * @throws RejectedExecutionException 대기열이 가득 찼거나 이미 maxWaiting 개의 스레드가 기다리는 경우
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return awaitBounded(() -> encodeAsync(rawPassword));
+    }
+
+    // 폼 로그인에서 호출됨, 대기열이 가득 차거나 기다리는 스레드가 많으면 로그인 실패로 처리 (/login?error)
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try {
+            return awaitBounded(() -> submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword)));
+        } catch (RejectedExecutionException e) {
+            throw new AuthenticationServiceException("로그인 요청이 많아 잠시 후 다시 시도해야 합니다.", e);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    // 지금 해시 결과를 기다리는 스레드 수
+    public int getWaiting() {
+        return maxWaiting - waiting.availablePermits();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(task);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    // 기다릴 자리가 없으면 작업을 넣지 않고 바로 거절 -> 톰캣 요청 스레드가 해시 결과를 기다리느라 모두 묶이지 않음
+    private <T> T awaitBounded(Supplier<CompletableFuture<T>> task) {
+        if (!waiting.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("too many threads waiting for password hash");
+        }
+        try {
+            return await(task.get());
+        } finally {
+            waiting.release();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
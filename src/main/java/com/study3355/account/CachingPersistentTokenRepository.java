@@ -0,0 +1,150 @@
+package com.study3355.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * remember-me 토큰 저장소 (persistent_logins)
+ * JdbcTokenRepositoryImpl 은 자동 로그인할 때마다 SELECT + UPDATE 를 실행함
+ * 여기서는 series 로 찾은 토큰을 메모리에 두고, 토큰 교체(UPDATE)는 모아뒀다가 주기적으로 한 번에 배치로 반영
+ * 새 토큰 생성(로그인), 삭제(로그아웃)는 바로 DB 에 반영
+ *
+ * 반영되기 전에 서버가 죽으면 그 사이에 교체된 토큰은 잃어버림 -> 해당 브라우저는 다시 로그인해야 함 (최대 flush 주기만큼)
+ * 서버가 여러 대면 다른 서버는 flush 전까지 예전 토큰을 보게 되므로 sticky session 이 필요함
+ */
+@Slf4j
+public class CachingPersistentTokenRepository implements PersistentTokenRepository {
+
+    private static final String UPDATE_SQL = "update persistent_logins set token = ?, last_used = ? where series = ?";
+
+    private final JdbcTokenRepositoryImpl delegate;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, Entry> cache;
+    private final Map<String, PersistentRememberMeToken> dirty = new ConcurrentHashMap<>();
+
+    public CachingPersistentTokenRepository(DataSource dataSource, long maxSize, long expireAfterAccessMinutes) {
+        this.delegate = new JdbcTokenRepositoryImpl();
+        this.delegate.setDataSource(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccessMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public synchronized void createNewToken(PersistentRememberMeToken token) {
+        delegate.createNewToken(token);
+        cache.put(token.getSeries(), new Entry(token, null, 0));
+    }
+
+    @Override
+    public synchronized void updateToken(String series, String tokenValue, Date lastUsed) {
+        PersistentRememberMeToken current = getTokenForSeries(series);
+        if (current == null) {
+            return; // 그 사이 로그아웃으로 지워진 토큰
+        }
+
+        PersistentRememberMeToken rotated = new PersistentRememberMeToken(current.getUsername(), series, tokenValue, lastUsed);
+        cache.put(series, new Entry(rotated, current.getTokenValue(), System.currentTimeMillis()));
+        dirty.put(series, rotated);
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        Entry entry = cache.get(seriesId, this::load);
+        return entry == null ? null : entry.token;
+    }
+
+    @Override
+    public synchronized void removeUserTokens(String username) {
+        delegate.removeUserTokens(username);
+        cache.asMap().values().removeIf(entry -> entry.token.getUsername().equals(username));
+        dirty.values().removeIf(token -> token.getUsername().equals(username));
+    }
+
+    // 방금(withinMillis 이내) 교체되기 전의 토큰인지 확인
+    // 같은 브라우저에서 동시에 보낸 요청들은 교체되기 전의 쿠키를 가지고 있음 -> 토큰 탈취로 보지 않기 위해 사용
+    public boolean isPreviousToken(String series, String tokenValue, long withinMillis) {
+        Entry entry = cache.getIfPresent(series);
+        return entry != null
+                && tokenValue.equals(entry.previousTokenValue)
+                && System.currentTimeMillis() - entry.rotatedAt <= withinMillis;
+    }
+
+    @Scheduled(initialDelayString = "${app.remember-me.flush-millis:1000}",
+            fixedDelayString = "${app.remember-me.flush-millis:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        // flush 하는 동안 다시 교체된 토큰은 map 에 남겨두고 다음에 반영
+        List<PersistentRememberMeToken> batch = new ArrayList<>();
+        for (Map.Entry<String, PersistentRememberMeToken> entry : dirty.entrySet()) {
+            if (dirty.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, token) -> {
+                ps.setString(1, token.getTokenValue());
+                ps.setTimestamp(2, new Timestamp(token.getDate().getTime()));
+                ps.setString(3, token.getSeries());
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(token -> dirty.putIfAbsent(token.getSeries(), token));
+            log.warn("remember-me 토큰 {}건을 반영하지 못했습니다. 다음 주기에 다시 시도합니다.", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    int pendingCount() {
+        return dirty.size();
+    }
+
+    private Entry load(String series) {
+        // 캐시에서 밀려났지만 아직 반영되지 않은 토큰이 있으면 그게 최신
+        PersistentRememberMeToken pending = dirty.get(series);
+        if (pending != null) {
+            return new Entry(pending, null, 0);
+        }
+        PersistentRememberMeToken token = delegate.getTokenForSeries(series);
+        return token == null ? null : new Entry(token, null, 0);
+    }
+
+    private static final class Entry {
+
+        final PersistentRememberMeToken token;
+        final String previousTokenValue;
+        final long rotatedAt;
+
+        Entry(PersistentRememberMeToken token, String previousTokenValue, long rotatedAt) {
+            this.token = token;
+            this.previousTokenValue = previousTokenValue;
+            this.rotatedAt = rotatedAt;
+        }
+    }
+}
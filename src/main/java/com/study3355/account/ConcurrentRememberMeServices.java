@@ -0,0 +1,53 @@
+package com.study3355.account;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 세션이 끝난 뒤 페이지를 열면 브라우저가 같은 remember-me 쿠키로 여러 요청을 동시에 보냄
+ * 기본 구현은 첫 요청이 토큰을 교체하고 나머지 요청은 예전 토큰을 보내므로 토큰 탈취로 판단해서 모든 토큰을 지워버림
+ * 같은 series 는 한 번에 하나씩 처리하고, 방금 교체된 토큰으로 온 요청은 다시 교체하지 않고 현재 토큰을 내려줌
+ */
+public class ConcurrentRememberMeServices extends PersistentTokenBasedRememberMeServices {
+
+    private static final int STRIPES = 64;
+
+    private final CachingPersistentTokenRepository tokenRepository;
+    private final long rotationGraceMillis;
+    private final Object[] stripes = new Object[STRIPES];
+
+    public ConcurrentRememberMeServices(String key, UserDetailsService userDetailsService,
+                                       CachingPersistentTokenRepository tokenRepository, long rotationGraceMillis) {
+        super(key, userDetailsService, tokenRepository);
+        this.tokenRepository = tokenRepository;
+        this.rotationGraceMillis = rotationGraceMillis;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    @Override
+    protected UserDetails processAutoLoginCookie(String[] cookieTokens, HttpServletRequest request,
+                                                 HttpServletResponse response) {
+        if (cookieTokens.length != 2) {
+            return super.processAutoLoginCookie(cookieTokens, request, response); // 형식 오류는 기본 구현에서 처리
+        }
+
+        String series = cookieTokens[0];
+        synchronized (stripes[(series.hashCode() & 0x7fffffff) % STRIPES]) {
+            PersistentRememberMeToken current = tokenRepository.getTokenForSeries(series);
+            if (current != null
+                    && !current.getTokenValue().equals(cookieTokens[1])
+                    && tokenRepository.isPreviousToken(series, cookieTokens[1], rotationGraceMillis)) {
+                setCookie(new String[]{series, current.getTokenValue()}, getTokenValiditySeconds(), request, response);
+                return getUserDetailsService().loadUserByUsername(current.getUsername());
+            }
+            return super.processAutoLoginCookie(cookieTokens, request, response);
+        }
+    }
+}
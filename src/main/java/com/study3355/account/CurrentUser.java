@@ -1,14 +1,14 @@
 package com.study3355.account;
 
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+// 파라미터 타입이 UserAccount 면 세션의 principal 을 그대로, Account 면 DB 에서 최신 Account 를 읽어서 넘겨줌
+// 인증하지 않은 사용자라면 null
+// CurrentUserArgumentResolver 참고
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
-@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account")
 public @interface CurrentUser {
 }
@@ -0,0 +1,64 @@
+package com.study3355.account;
+
+import com.study3355.domain.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.Objects;
+
+/**
+ * @CurrentUser 파라미터를 처리
+ * 세션에는 작은 UserAccount 만 저장하고, Account 엔티티는 핸들러가 필요로 할 때만 요청마다 새로 읽어옴
+ * (예전에는 세션에 저장된 detached Account 를 그대로 넘겨줘서 다른 곳에서 바뀐 값이 반영되지 않았음)
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final AccountRepository accountRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (type == Account.class || type == UserAccount.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserAccount)) {
+            return null;
+        }
+
+        UserAccount userAccount = (UserAccount) authentication.getPrincipal();
+        if (parameter.getParameterType() == UserAccount.class) {
+            return userAccount;
+        }
+
+        Account account = accountRepository.findById(userAccount.getId()).orElse(null);
+        if (account != null && !Objects.equals(account.getVersion(), userAccount.getVersion())) {
+            refreshPrincipal(authentication, account);
+        }
+        return account;
+    }
+
+    // 닉네임, 인증 여부 등이 바뀐 경우 세션의 principal 도 최신 값으로 교체
+    private void refreshPrincipal(Authentication authentication, Account account) {
+        UserAccount refreshed = new UserAccount(account);
+        refreshed.eraseCredentials();
+        UsernamePasswordAuthenticationToken token =
+                new UsernamePasswordAuthenticationToken(refreshed, null, authentication.getAuthorities());
+        token.setDetails(authentication.getDetails());
+        SecurityContextHolder.getContext().setAuthentication(token);
+    }
+}
@@ -0,0 +1,136 @@
+package com.study3355.account;
+
+import com.study3355.domain.Account;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * 이메일 인증, 이메일 로그인 링크에 들어가는 토큰
+ * 계정 id, 용도, 만료 시각, 계정의 토큰 버전을 HMAC-SHA256 으로 서명 -> 토큰을 DB 에 저장하지 않음
+ * 형식: {accountId}.{용도}.{만료 epoch 초}.{토큰 버전}.{서명(base64url)}
+ * 형식이 틀리거나, 만료되었거나, 서명이 맞지 않는 토큰은 DB 를 조회하지 않고 거절
+ * 토큰 버전은 로그인 링크를 사용할 때 올려서 같은 링크를 다시 쓸 수 없게 함
+ */
+@Slf4j
+@Component
+public class EmailTokenSigner {
+
+    public enum Purpose {
+        SIGN_UP("S"), LOGIN("L");
+
+        private final String code;
+
+        Purpose(String code) {
+            this.code = code;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Claims {
+
+        private final Long accountId;
+
+        private final int tokenVersion;
+    }
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_TOKEN_LENGTH = 128;
+
+    private final SecretKeySpec key;
+    private final Duration signUpTtl;
+    private final Duration loginTtl;
+
+    // Mac 은 스레드에 안전하지 않으므로 스레드마다 하나씩 만들어서 재사용
+    private final ThreadLocal<Mac> macs;
+
+    public EmailTokenSigner(@Value("${app.token.secret:}") String secret,
+                            @Value("${app.token.sign-up-ttl-hours:72}") long signUpTtlHours,
+                            @Value("${app.token.login-ttl-minutes:60}") long loginTtlMinutes) {
+        byte[] keyBytes;
+        if (secret.isEmpty()) {
+            log.warn("app.token.secret 이 설정되지 않아 임의의 키를 사용합니다. 재시작하면 이미 보낸 링크는 사용할 수 없습니다.");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.signUpTtl = Duration.ofHours(signUpTtlHours);
+        this.loginTtl = Duration.ofMinutes(loginTtlMinutes);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String issue(Account account, Purpose purpose) {
+        Duration ttl = purpose == Purpose.SIGN_UP ? signUpTtl : loginTtl;
+        return issue(account.getId(), account.getTokenVersion(), purpose, Instant.now().plus(ttl));
+    }
+
+    String issue(Long accountId, int tokenVersion, Purpose purpose, Instant expiresAt) {
+        String payload = accountId + "." + purpose.code + "." + expiresAt.getEpochSecond() + "." + tokenVersion;
+        return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload));
+    }
+
+    // 서명, 용도, 만료 시각만 확인 (DB 조회 없음), 토큰 버전은 계정을 읽은 뒤 호출한 쪽에서 비교
+    public Optional<Claims> verify(String token, Purpose purpose) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) {
+            return Optional.empty();
+        }
+
+        int signatureAt = token.lastIndexOf('.');
+        if (signatureAt < 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, signatureAt);
+        String[] fields = payload.split("\\.");
+        if (fields.length != 4 || !fields[1].equals(purpose.code)) {
+            return Optional.empty();
+        }
+
+        try {
+            Long accountId = Long.valueOf(fields[0]);
+            long expiresAt = Long.parseLong(fields[2]);
+            int tokenVersion = Integer.parseInt(fields[3]);
+            if (Instant.now().getEpochSecond() > expiresAt) {
+                return Optional.empty();
+            }
+
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureAt + 1));
+            // 비교 시간으로 서명을 추측할 수 없도록 상수 시간 비교
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Claims(accountId, tokenVersion));
+        } catch (IllegalArgumentException e) { // 숫자, base64 형식 오류
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.study3355.account;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 이메일 인증을 마친 회원 수 ("N번째 회원")
+ * 인증할 때마다 count(*) 하지 않고, stat_counter 에 저장된 값 + 아직 반영하지 않은 증가분으로 계산
+ * 증가분은 LongAdder 에 모았다가 주기적으로 total = total + ? 로 반영 (인증 요청끼리 같은 행을 두고 경쟁하지 않음)
+ * 증가분은 트랜잭션이 커밋된 뒤에 더함 -> 롤백된 인증은 세지 않음
+ * 반영 전에 서버가 죽는 경우 값이 어긋날 수 있으므로 주기적으로 실제 회원 수로 맞춤
+ */
+@Slf4j
+@Component
+public class MemberCounter {
+
+    static final String NAME = "verified-members";
+
+    private static final String COUNT_SQL = "select count(*) from account where email_verified = true";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong persisted = new AtomicLong(); // DB 에 반영된 값
+    private final LongAdder pending = new LongAdder(); // 아직 반영하지 않은 증가분
+
+    public MemberCounter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        List<Long> totals = jdbcTemplate.queryForList("select total from stat_counter where name = ?", Long.class, NAME);
+        if (totals.isEmpty()) {
+            long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+            jdbcTemplate.update("insert into stat_counter (name, total) values (?, ?)", NAME, count);
+            persisted.set(count);
+        } else {
+            persisted.set(totals.get(0));
+        }
+    }
+
+    // 인증을 마친 회원이 한 명 늘었을 때, 그 회원의 번호를 반환
+    // 트랜잭션 안에서 호출하면 커밋된 뒤에 반영 (번호는 그 전에 미리 계산하므로 동시에 인증하면 겹칠 수 있음)
+    public long increment() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.increment();
+            return current();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.increment();
+            }
+        });
+        return current() + 1;
+    }
+
+    public long current() {
+        return persisted.get() + pending.sum();
+    }
+
+    @Scheduled(initialDelayString = "${app.member-counter.flush-millis:5000}",
+            fixedDelayString = "${app.member-counter.flush-millis:5000}")
+    public synchronized void flush() {
+        // sumThenReset 은 동시에 증가하는 값을 잃을 수 있으므로, 읽은 만큼만 빼줌
+        long delta = pending.sum();
+        if (delta == 0) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.update("update stat_counter set total = total + ? where name = ?", delta, NAME);
+            persisted.addAndGet(delta);
+            pending.add(-delta);
+        } catch (RuntimeException e) {
+            log.warn("회원 수 증가분 {}을 반영하지 못했습니다. 다음 주기에 다시 시도합니다.", delta, e);
+        }
+    }
+
+    // 실제 회원 수와 비교해서 어긋난 만큼 바로잡음
+    // count 하기 전에 남아있던 증가분은 이미 커밋된 회원이라 count 에 들어있음 -> 나중에 flush 로 더해지므로 빼고 저장
+    @Scheduled(initialDelayString = "${app.member-counter.reconcile-millis:3600000}",
+            fixedDelayString = "${app.member-counter.reconcile-millis:3600000}")
+    public synchronized void reconcile() {
+        flush();
+
+        long unflushed = pending.sum();
+        long actual = jdbcTemplate.queryForObject(COUNT_SQL, Long.class) - unflushed;
+        long stored = jdbcTemplate.queryForObject("select total from stat_counter where name = ?", Long.class, NAME);
+        if (actual != stored) {
+            log.info("회원 수 보정: {} -> {}", stored, actual);
+            jdbcTemplate.update("update stat_counter set total = ? where name = ?", actual, NAME);
+        }
+        persisted.set(actual);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
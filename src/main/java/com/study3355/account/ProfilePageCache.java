@@ -0,0 +1,92 @@
+package com.study3355.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인하지 않은 사용자(검색엔진, 링크 미리보기 등)에게 보여주는 프로필 페이지를 렌더링한 결과 그대로 캐시
+ * key 는 닉네임, 계정 버전이 바뀌면 다시 렌더링
+ * 익명 사용자용 화면에는 세션마다 다른 값(CSRF 토큰, 로그인 정보)이 없으므로 모두에게 같은 HTML 을 보내도 됨
+ */
+@Component
+public class ProfilePageCache {
+
+    static final String CACHE_NAME = "profile.page";
+
+    private final ViewResolver viewResolver;
+    private final Cache<String, Page> cache;
+
+    public ProfilePageCache(@Qualifier("thymeleafViewResolver") ViewResolver viewResolver,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.profile-page-cache.max-size:1000}") long maxSize,
+                            @Value("${app.profile-page-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.viewResolver = viewResolver;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // 같은 버전으로 렌더링해 둔 페이지가 있으면 그 내용을 그대로 쓰는 View, 없으면 null
+    public View cached(String nickname, Long version) {
+        Page page = cache.getIfPresent(nickname);
+        if (page == null || !page.version.equals(version)) {
+            return null;
+        }
+
+        return (model, request, response) -> {
+            response.setContentType(page.contentType);
+            response.setContentLength(page.body.length);
+            response.getOutputStream().write(page.body);
+        };
+    }
+
+    // 원래 뷰로 렌더링하면서 결과를 캐시에 저장하는 View
+    public View rendering(String viewName, String nickname, Long version) {
+        return (model, request, response) -> {
+            View view = viewResolver.resolveViewName(viewName, RequestContextUtils.getLocale(request));
+            if (view == null) {
+                throw new IllegalStateException(viewName + " 뷰를 찾을 수 없습니다.");
+            }
+
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            view.render(model, request, wrapper);
+            cache.put(nickname, new Page(version, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+            wrapper.copyBodyToResponse();
+        };
+    }
+
+    public void evict(String... nicknames) {
+        for (String nickname : nicknames) {
+            if (nickname != null) {
+                cache.invalidate(nickname);
+            }
+        }
+    }
+
+    private static final class Page {
+
+        final Long version;
+        final String contentType;
+        final byte[] body;
+
+        Page(Long version, String contentType, byte[] body) {
+            this.version = version;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
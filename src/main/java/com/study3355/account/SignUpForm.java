@@ -16,9 +16,11 @@ import javax.validation.constraints.Pattern;
 @Data
 public class SignUpForm {
 
+    public static final String NICKNAME_REGEXP = "^[ㄱ-ㅎ가-힣A-Za-z0-9_-]{3,20}$";
+
     @NotNull
     @Length(min=3, max=20)
-    @Pattern(regexp ="^[ㄱ-ㅎ가-힣A-Za-z0-9_-]{3,20}$") // 정규식 표현을 통해 문자(한글, 영어),숫자,기호(-,_)로만 3자이상 20자 이내만 허용
+    @Pattern(regexp = NICKNAME_REGEXP) // 정규식 표현을 통해 문자(한글, 영어),숫자,기호(-,_)로만 3자이상 20자 이내만 허용
     private String nickname;
 
     @Email
@@ -9,7 +9,7 @@ import org.springframework.validation.Validator;
 @RequiredArgsConstructor
 public class SignUpFormValidator implements Validator {
 
-    private final AccountRepository accountRepository;
+    private final AccountNameFilter accountNameFilter;
 
     @Override
     public boolean supports(Class<?> aClass) {
@@ -21,14 +21,15 @@ public class SignUpFormValidator implements Validator {
     public void validate(Object target, Errors errors) {
         // TODO nickname, email
         SignUpForm signUpForm = (SignUpForm) target;
-        if (accountRepository.existsByEmail(signUpForm.getEmail())) {
+        // 처음 보는 이메일/닉네임이면 DB 를 조회하지 않음
+        if (accountNameFilter.isEmailTaken(signUpForm.getEmail())) {
             errors.rejectValue("email",
                     "invalid.email",
                     new Object[]{signUpForm.getEmail()},
                     "이미 사용중인 이메일입니다.");
         }
 
-        if(accountRepository.existsByNickname(signUpForm.getNickname())) {
+        if(accountNameFilter.isNicknameTaken(signUpForm.getNickname())) {
             errors.rejectValue("nickname",
                     "invalid.nickname",
                     new Object[]{signUpForm.getNickname()},
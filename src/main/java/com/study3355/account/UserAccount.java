@@ -2,6 +2,7 @@ package com.study3355.account;
 
 import com.study3355.domain.Account;
 import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 
@@ -9,13 +10,41 @@ import java.util.List;
 
 // 스프링 시큐리티가 다루는 유저정보와 도메인이 다루는 유저정보의 갭을 매꿔줄 어댑터
 // principal 객체로 사용
+// 세션에 저장되므로 Account 엔티티 전체가 아니라 식별에 필요한 값만 가지고 있음 (불변)
+// 최신 Account 가 필요한 핸들러는 @CurrentUser Account 로 받으면 그때 DB 에서 읽어옴
 @Getter
 public class UserAccount extends User {
 
-    private Account account;
+    private static final long serialVersionUID = 1L;
+
+    private static final List<GrantedAuthority> USER = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<GrantedAuthority> ADMIN = List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final Long id;
+
+    private final String email;
+
+    private final boolean emailVerified;
+
+    private final Long version; // 이 principal 을 만들 당시의 Account 버전
 
     public UserAccount(Account account) {
-        super(account.getNickname(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        this.account = account;
+        super(account.getNickname(), account.getPassword(), account.isAdmin() ? ADMIN : USER);
+        this.id = account.getId();
+        this.email = account.getEmail();
+        this.emailVerified = account.isEmailVerified();
+        this.version = account.getVersion();
+    }
+
+    public UserAccount(AccountCredentials credentials) {
+        super(credentials.getNickname(), credentials.getPassword(), credentials.isAdmin() ? ADMIN : USER);
+        this.id = credentials.getId();
+        this.email = credentials.getEmail();
+        this.emailVerified = credentials.isEmailVerified();
+        this.version = credentials.getVersion();
+    }
+
+    public String getNickname() {
+        return getUsername();
     }
 }
@@ -0,0 +1,75 @@
+package com.study3355.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * id 기준 keyset(seek) 페이지
+ * offset 페이지는 뒤로 갈수록 앞의 행을 모두 건너뛰어야 해서 느려지지만,
+ * 마지막 id 다음부터(where id > ? order by id limit n) 읽으면 PK 인덱스로 바로 찾아가므로 몇 번째 페이지든 비용이 같음
+ * 다음 페이지 cursor 는 마지막 id 를 감싼 값이고, 클라이언트는 내용을 해석하지 않고 그대로 돌려보냄
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> content;
+
+    private final int size;
+
+    private final String next; // 마지막 페이지이면 null
+
+    // 다음 페이지가 있는지 알기 위해 한 개 더 읽음
+    public static Pageable fetch(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    // 요청한 크기를 1 ~ MAX_SIZE 로 제한
+    public static int size(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(MAX_SIZE, requested));
+    }
+
+    // cursor 가 없으면 처음부터(0), 잘못된 cursor 는 400
+    public static long after(String type, String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(type + ":")) {
+                return Long.parseLong(decoded.substring(type.length() + 1));
+            }
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            // 아래에서 400
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 cursor 입니다.");
+    }
+
+    public static <T> CursorPage<T> of(String type, List<T> fetched, int size, ToLongFunction<T> idOf) {
+        if (fetched.size() <= size) {
+            return new CursorPage<>(fetched, size, null);
+        }
+        List<T> content = fetched.subList(0, size);
+        return new CursorPage<>(content, size, cursor(type, idOf.applyAsLong(content.get(size - 1))));
+    }
+
+    public static String cursor(String type, long lastId) {
+        String value = type + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
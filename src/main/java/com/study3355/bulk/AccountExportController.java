@@ -0,0 +1,39 @@
+package com.study3355.bulk;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * 관리용 회원 내보내기, 관리자(app.admin.emails)로 로그인해서 로컬과 app.actuator.allowed-network 에서만 접근 가능 (SecurityConfig)
+ * 관리자로 로그인한 뒤 /admin/accounts/export?format=csv (명령줄에서는 AccountExportRunner)
+ */
+@RestController
+@RequiredArgsConstructor
+public class AccountExportController {
+
+    private final AccountExporter accountExporter;
+
+    // 응답 출력 스트림에 바로 쓰기 때문에 서버 메모리에 파일 전체를 만들지 않음
+    @GetMapping("/admin/accounts/export")
+    public void export(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (exportFormat == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "지원하지 않는 형식입니다: " + format);
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("accounts-" + LocalDate.now() + "." + exportFormat.getExtension())
+                .build().toString());
+        accountExporter.export(response.getOutputStream(), exportFormat);
+    }
+}
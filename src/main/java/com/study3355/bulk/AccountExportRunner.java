@@ -0,0 +1,52 @@
+package com.study3355.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 명령줄에서 회원 내보내기 후 종료, 형식은 파일 확장자(.csv, .jsonl)로 정함
+ * java -jar app.jar --spring.main.web-application-type=none --app.export.file=accounts.jsonl
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("app.export.file")
+public class AccountExportRunner implements ApplicationRunner {
+
+    private final AccountExporter accountExporter;
+    private final ApplicationContext applicationContext;
+    private final String file;
+
+    public AccountExportRunner(AccountExporter accountExporter,
+                               ApplicationContext applicationContext,
+                               @Value("${app.export.file}") String file) {
+        this.accountExporter = accountExporter;
+        this.applicationContext = applicationContext;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ExportFormat format = ExportFormat.of(file);
+        if (format == null) {
+            throw new IllegalArgumentException("확장자로 형식을 알 수 없습니다: " + file);
+        }
+
+        Path path = Paths.get(file);
+        try (OutputStream out = Files.newOutputStream(path)) {
+            long exported = accountExporter.export(out, format);
+            log.info("{} 에 회원 {}명을 내보냈습니다.", path.toAbsolutePath(), exported);
+        }
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
@@ -0,0 +1,225 @@
+package com.study3355.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 분석용 회원 내보내기 (CSV, JSONL)
+ * findAll() 처럼 엔티티를 만들지 않고, 커서(forward-only + fetch size)로 한 행씩 읽어서 바로 출력 스트림에 씀
+ * -> 회원 수와 상관없이 메모리에는 한 명분의 데이터만 있음
+ * 비밀번호, 토큰 버전, 프로필 이미지처럼 분석에 필요 없거나 민감한 컬럼은 조회하지 않음
+ */
+@Slf4j
+@Component
+public class AccountExporter {
+
+    // 회원 id 순으로 태그와 조인해서 읽고, id 가 바뀔 때마다 한 명씩 출력
+    private static final String SELECT_SQL =
+            "select a.id, a.email, a.nickname, a.email_verified, a.joined_at, a.occupation, a.location, a.url, a.bio, t.title " +
+            "from account a left join account_tags at on at.account_id = a.id left join tag t on t.id = at.tags_id " +
+            "order by a.id";
+
+    static final String[] CSV_HEADER =
+            {"id", "email", "nickname", "emailVerified", "joinedAt", "occupation", "location", "url", "bio", "tags"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public AccountExporter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL 등은 auto-commit 이 꺼진 트랜잭션 안에서만 fetch size 만큼 나눠서 가져옴
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * 출력 스트림은 닫지 않음
+     * @return 내보낸 회원 수
+     */
+    public long export(OutputStream out, ExportFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new JsonRowWriter(writer, objectMapper);
+
+        long started = System.nanoTime();
+        AccountCursor cursor = new AccountCursor(rowWriter);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, cursor));
+            cursor.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // 받는 쪽이 연결을 끊은 경우 등
+        }
+        rowWriter.flush();
+
+        log.info("회원 {}명을 {} 로 내보냈습니다. ({}ms)", cursor.exported, format, (System.nanoTime() - started) / 1_000_000);
+        return cursor.exported;
+    }
+
+    private static class AccountCursor implements RowCallbackHandler {
+
+        private final RowWriter rowWriter;
+        private final List<String> tags = new ArrayList<>();
+        private Object[] current;
+        private long currentId;
+        private long exported;
+
+        AccountCursor(RowWriter rowWriter) {
+            this.rowWriter = rowWriter;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (current == null || id != currentId) {
+                finish();
+                Timestamp joinedAt = rs.getTimestamp(5);
+                current = new Object[]{id, rs.getString(2), rs.getString(3), rs.getBoolean(4),
+                        joinedAt == null ? null : joinedAt.toLocalDateTime().toString(),
+                        rs.getString(6), rs.getString(7), rs.getString(8), rs.getString(9)};
+                currentId = id;
+            }
+            String tag = rs.getString(10);
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                rowWriter.write(current, tags);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            exported++;
+            current = null;
+            tags.clear();
+        }
+    }
+
+    private interface RowWriter {
+
+        void write(Object[] account, List<String> tags) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    // ImportRow 와 같은 컬럼 이름, 태그는 | 로 구분 (비밀번호가 없으므로 그대로 다시 등록할 수는 없음)
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Object[] account, List<String> tags) throws IOException {
+            for (Object value : account) {
+                writeValue(value);
+                writer.write(',');
+            }
+            writeValue(String.join("|", tags));
+            writer.write('\n');
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static class JsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        JsonRowWriter(Writer writer, ObjectMapper objectMapper) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null); // 줄바꿈은 직접 씀
+        }
+
+        @Override
+        public void write(Object[] account, List<String> tags) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < account.length; i++) {
+                generator.writeFieldName(CSV_HEADER[i]);
+                Object value = account[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long) {
+                    generator.writeNumber((Long) value);
+                } else if (value instanceof Boolean) {
+                    generator.writeBoolean((Boolean) value);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeArrayFieldStart("tags");
+            for (String tag : tags) {
+                generator.writeString(tag);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.flush(); // generator 버퍼 -> BufferedWriter 로, 줄바꿈 순서를 맞추기 위해
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.study3355.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * 명령줄에서 회원 대량 등록 후 종료
+ * java -jar app.jar --spring.main.web-application-type=none --app.import.file=members.csv
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("app.import.file")
+public class AccountImportRunner implements ApplicationRunner {
+
+    private final AccountImporter accountImporter;
+    private final ApplicationContext applicationContext;
+    private final String file;
+
+    public AccountImportRunner(AccountImporter accountImporter,
+                               ApplicationContext applicationContext,
+                               @Value("${app.import.file}") String file) {
+        this.accountImporter = accountImporter;
+        this.applicationContext = applicationContext;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ImportResult result = accountImporter.importFile(Paths.get(file));
+        log.info("{} 등록 결과: {}", file, result);
+
+        int exitCode = result.getFailed() > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+}
@@ -0,0 +1,261 @@
+package com.study3355.bulk;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study3355.account.AccountNameFilter;
+import com.study3355.account.AccountRepository;
+import com.study3355.account.BoundedPasswordEncoder;
+import com.study3355.account.MemberCounter;
+import com.study3355.account.SignUpForm;
+import com.study3355.domain.Account;
+import com.study3355.domain.Tag;
+import com.study3355.tag.MemberTagIndex;
+import com.study3355.tag.SimilarMemberIndex;
+import com.study3355.tag.TagPopularity;
+import com.study3355.tag.TagResolver;
+import com.study3355.tag.TagSuggestIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * 회원 대량 등록 (CSV, JSONL)
+ * 파일을 chunkSize 행씩 읽어서 -> 형식/중복 확인 -> 비밀번호 해시(해시 작업 스레드에서 병렬로) -> 태그 한 번에 조회/생성
+ * -> 한 트랜잭션에서 persist 후 flush/clear (Hibernate JDBC 배치, id 는 시퀀스에서 50개씩)
+ * 한 묶음이 실패해도 나머지는 계속 진행하고, 묶음마다 처리 속도(rows/s)를 로그로 남김
+ */
+@Slf4j
+@Component
+public class AccountImporter {
+
+    private static final Pattern NICKNAME_PATTERN = Pattern.compile(SignUpForm.NICKNAME_REGEXP);
+    // 이미 해시한 값으로 인정하는 것은 bcrypt 뿐 ({noop} 평문이나 약한 해시를 그대로 저장하지 않음), 본문은 salt + 해시 53자
+    private static final Pattern ENCODED_PASSWORD = Pattern.compile("^\\{bcrypt}\\$2[abxy]\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final TagResolver tagResolver;
+    private final AccountNameFilter accountNameFilter;
+    private final MemberCounter memberCounter;
+    private final TagSuggestIndex tagSuggestIndex;
+    private final MemberTagIndex memberTagIndex;
+    private final SimilarMemberIndex similarMemberIndex;
+    private final TagPopularity tagPopularity;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public AccountImporter(AccountRepository accountRepository,
+                           EntityManager entityManager,
+                           TransactionTemplate transactionTemplate,
+                           BoundedPasswordEncoder passwordEncoder,
+                           TagResolver tagResolver,
+                           AccountNameFilter accountNameFilter,
+                           MemberCounter memberCounter,
+                           TagSuggestIndex tagSuggestIndex,
+                           MemberTagIndex memberTagIndex,
+                           SimilarMemberIndex similarMemberIndex,
+                           TagPopularity tagPopularity,
+                           ObjectMapper objectMapper,
+                           @Value("${app.import.chunk-size:1000}") int chunkSize) {
+        this.accountRepository = accountRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.tagResolver = tagResolver;
+        this.accountNameFilter = accountNameFilter;
+        this.memberCounter = memberCounter;
+        this.tagSuggestIndex = tagSuggestIndex;
+        this.memberTagIndex = memberTagIndex;
+        this.similarMemberIndex = similarMemberIndex;
+        this.tagPopularity = tagPopularity;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    // 확장자가 .csv 이면 CSV, 그 외(.jsonl, .ndjson)는 한 줄에 JSON 객체 하나
+    public ImportResult importFile(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        if (name.endsWith(".csv")) {
+            try (CsvImportReader rows = new CsvImportReader(reader)) {
+                return importRows(rows);
+            }
+        }
+        try (MappingIterator<ImportRow> rows = objectMapper.readerFor(ImportRow.class).readValues(reader)) {
+            return importRows(rows);
+        }
+    }
+
+    public ImportResult importRows(Iterator<ImportRow> rows) {
+        long start = System.nanoTime();
+        long imported = 0;
+        long skipped = 0;
+        long failed = 0;
+        boolean verifiedImported = false;
+
+        while (rows.hasNext()) {
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            while (rows.hasNext() && chunk.size() < chunkSize) {
+                chunk.add(rows.next());
+            }
+
+            List<ImportRow> valid = filter(chunk);
+            skipped += chunk.size() - valid.size();
+            if (valid.isEmpty()) {
+                continue;
+            }
+
+            try {
+                List<String> passwords = encodePasswords(valid);
+                Map<String, Long> tagIds = tagResolver.resolve(tagTitles(valid));
+                transactionTemplate.executeWithoutResult(status -> persist(valid, passwords, tagIds));
+
+                valid.forEach(row -> {
+                    accountNameFilter.addEmail(row.getEmail());
+                    accountNameFilter.addNickname(row.getNickname());
+                });
+                imported += valid.size();
+                verifiedImported |= valid.stream().anyMatch(ImportRow::isEmailVerified);
+            } catch (RuntimeException e) {
+                failed += valid.size();
+                log.warn("회원 {}명을 등록하지 못했습니다. (첫 행: {})", valid.size(), valid.get(0).getEmail(), e);
+            }
+
+            long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            log.info("회원 등록 중: {}명 등록, {}명 건너뜀, {}명 실패 ({} rows/s)",
+                    imported, skipped, failed, (imported + skipped + failed) * 1000 / elapsedMillis);
+        }
+
+        // 이메일 인증한 회원 수, 태그 인기도, 태그 관련 색인은 등록이 끝난 뒤 한 번만 다시 계산
+        if (verifiedImported) {
+            memberCounter.reconcile();
+        }
+        if (imported > 0) {
+            tagPopularity.reconcile(); // 자동완성 순위가 이 값을 쓰므로 먼저
+            tagSuggestIndex.rebuild();
+            memberTagIndex.rebuild();
+            similarMemberIndex.rebuild();
+        }
+
+        ImportResult result = new ImportResult(imported, skipped, failed, (System.nanoTime() - start) / 1_000_000);
+        log.info("회원 등록 완료: {} ({} rows/s)", result, String.format("%.0f", result.rowsPerSecond()));
+        return result;
+    }
+
+    // 형식이 잘못된 행, 파일 안에서 중복된 행, 이미 가입한 이메일/닉네임은 건너뜀
+    private List<ImportRow> filter(List<ImportRow> chunk) {
+        Set<String> emails = new HashSet<>();
+        Set<String> nicknames = new HashSet<>();
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.getTags() == null) {
+                row.setTags(new ArrayList<>());
+            }
+            if (row.getEmail() == null || !row.getEmail().contains("@")
+                    || row.getNickname() == null || !NICKNAME_PATTERN.matcher(row.getNickname()).matches()
+                    || row.getPassword() == null || row.getPassword().isEmpty()) {
+                continue;
+            }
+            if (emails.add(row.getEmail()) && nicknames.add(row.getNickname())) {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> existingEmails = new HashSet<>(accountRepository.findExistingEmails(emails));
+        Set<String> existingNicknames = new HashSet<>(accountRepository.findExistingNicknames(nicknames));
+        candidates.removeIf(row -> existingEmails.contains(row.getEmail()) || existingNicknames.contains(row.getNickname()));
+        return candidates;
+    }
+
+    // 이미 해시한 bcrypt 값은 그대로 사용, 나머지는 해시 작업 스레드에 나눠서 맡기고 대기열이 가득 차면 먼저 맡긴 것을 기다림
+    private List<String> encodePasswords(List<ImportRow> rows) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(rows.size());
+        Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+        for (ImportRow row : rows) {
+            if (ENCODED_PASSWORD.matcher(row.getPassword()).matches()) {
+                futures.add(CompletableFuture.completedFuture(row.getPassword()));
+                continue;
+            }
+            while (true) {
+                try {
+                    CompletableFuture<String> future = passwordEncoder.encodeAsync(row.getPassword());
+                    futures.add(future);
+                    pending.add(future);
+                    break;
+                } catch (RejectedExecutionException e) {
+                    if (pending.isEmpty()) {
+                        throw e; // 다른 요청이 대기열을 모두 차지하고 있음
+                    }
+                    pending.poll().join();
+                }
+            }
+        }
+
+        List<String> passwords = new ArrayList<>(rows.size());
+        futures.forEach(future -> passwords.add(future.join()));
+        return passwords;
+    }
+
+    private static List<String> tagTitles(List<ImportRow> rows) {
+        List<String> titles = new ArrayList<>();
+        rows.forEach(row -> titles.addAll(row.getTags()));
+        return titles;
+    }
+
+    private void persist(List<ImportRow> rows, List<String> passwords, Map<String, Long> tagIds) {
+        Map<Long, Tag> tags = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            Set<Tag> accountTags = new HashSet<>();
+            for (String title : row.getTags()) {
+                Long tagId = tagIds.get(TagResolver.normalize(title));
+                if (tagId != null) {
+                    // 태그는 id 만 있으면 되므로 조회하지 않고 참조만 만듦
+                    accountTags.add(tags.computeIfAbsent(tagId, id -> entityManager.getReference(Tag.class, id)));
+                }
+            }
+
+            entityManager.persist(Account.builder()
+                    .email(row.getEmail())
+                    .nickname(row.getNickname())
+                    .password(passwords.get(i))
+                    .emailVerified(row.isEmailVerified())
+                    .joinedAt(row.isEmailVerified() ? now : null)
+                    .studyCreatedByWeb(true)
+                    .studyEnrollmentResultByWeb(true)
+                    .studyUpdatedByWeb(true)
+                    .tags(accountTags)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear(); // 영속성 컨텍스트가 계속 커지지 않도록
+    }
+}
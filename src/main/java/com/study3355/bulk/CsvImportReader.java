@@ -0,0 +1,126 @@
+package com.study3355.bulk;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * CSV 를 한 줄씩 읽어서 ImportRow 로 바꿈 (파일 전체를 메모리에 올리지 않음)
+ * 첫 줄은 헤더(email,nickname,password,emailVerified,tags), 순서는 자유, 모르는 컬럼은 무시
+ * 값은 큰따옴표로 감쌀 수 있고("" 는 따옴표), 태그는 | 로 구분, 한 값이 여러 줄에 걸치는 경우는 지원하지 않음
+ */
+public class CsvImportReader implements Iterator<ImportRow>, Closeable {
+
+    private final BufferedReader reader;
+    private final List<String> header;
+    private String nextLine;
+
+    public CsvImportReader(BufferedReader reader) {
+        this.reader = reader;
+        String headerLine = readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV 헤더가 없습니다.");
+        }
+        this.header = new ArrayList<>();
+        for (String column : split(headerLine.replace("\uFEFF", ""))) { // UTF-8 BOM
+            header.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        this.nextLine = readNonBlankLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public ImportRow next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        List<String> values = split(nextLine);
+        nextLine = readNonBlankLine();
+
+        ImportRow row = new ImportRow();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i);
+            switch (header.get(i)) {
+                case "email":
+                    row.setEmail(value.trim());
+                    break;
+                case "nickname":
+                    row.setNickname(value.trim());
+                    break;
+                case "password":
+                    row.setPassword(value);
+                    break;
+                case "emailverified":
+                    row.setEmailVerified(Boolean.parseBoolean(value.trim()));
+                    break;
+                case "tags":
+                    if (!value.isBlank()) {
+                        row.setTags(new ArrayList<>(Arrays.asList(value.split("\\|"))));
+                    }
+                    break;
+                default:
+            }
+        }
+        return row;
+    }
+
+    static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private String readNonBlankLine() {
+        String line;
+        do {
+            line = readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
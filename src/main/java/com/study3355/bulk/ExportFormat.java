@@ -0,0 +1,43 @@
+package com.study3355.bulk;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    CSV("csv", "text/csv;charset=UTF-8"),
+    JSONL("jsonl", "application/x-ndjson;charset=UTF-8");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // 이름(csv, jsonl, ndjson) 또는 파일 이름의 확장자로 찾음, 모르는 형식이면 null
+    public static ExportFormat of(String nameOrFile) {
+        if (nameOrFile == null) {
+            return null;
+        }
+        String name = nameOrFile.toLowerCase(Locale.ROOT);
+        name = name.substring(name.lastIndexOf('.') + 1);
+        switch (name) {
+            case "csv":
+                return CSV;
+            case "jsonl":
+            case "ndjson":
+                return JSONL;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.study3355.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ImportResult {
+
+    private final long imported;
+
+    private final long skipped; // 형식 오류, 이미 있는 이메일/닉네임
+
+    private final long failed; // 저장하지 못한 묶음의 행 수
+
+    private final long elapsedMillis;
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : (imported + skipped + failed) * 1000.0 / elapsedMillis;
+    }
+}
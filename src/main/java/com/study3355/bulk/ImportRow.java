@@ -0,0 +1,26 @@
+package com.study3355.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 등록 파일의 한 줄 (CSV 한 행 또는 JSONL 한 줄)
+ * password 가 {bcrypt}$2a$10$... 형식의 bcrypt 해시이면 그대로 저장, 그 외({noop}, {sha256} 등 포함)는 평문으로 보고 해시
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportRow {
+
+    private String email;
+
+    private String nickname;
+
+    private String password;
+
+    private boolean emailVerified;
+
+    private List<String> tags = new ArrayList<>();
+}
@@ -1,22 +1,28 @@
 package com.study3355.config;
 
-import org.modelmapper.ModelMapper;
+import com.study3355.account.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling // MailDispatcher 등 주기적인 작업
 public class AppConfig {
 
-    // 패스워드 인코더
+    // 패스워드 인코더, 해시는 전용 스레드에서만 계산
+    // strength 를 지정하지 않으면(0) 기동할 때 target-millis 에 맞춰 bcrypt cost 를 정함
+    // max-waiting: 로그인할 때 해시 결과를 기다리는 요청 스레드 수 상한 (톰캣 기본 200 의 일부만)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
-    }
-
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                                  @Value("${app.password.strength:0}") int strength,
+                                                  @Value("${app.password.target-millis:250}") long targetMillis,
+                                                  @Value("${app.password.threads:0}") int threads,
+                                                  @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${app.password.max-waiting:32}") int maxWaiting) {
+        int cost = strength > 0 ? strength : BoundedPasswordEncoder.calibrate(targetMillis, 10, 14);
+        int hashThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(cost, hashThreads, queueCapacity, maxWaiting, meterRegistry);
     }
 }
@@ -0,0 +1,41 @@
+package com.study3355.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * 시큐리티 인증 결과 (폼 로그인, remember-me)
+ * AuthenticationManager 를 거치는 인증만 이벤트가 발생함, 회원 가입/이메일 링크 로그인은 AccountService 메트릭으로 확인
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticationMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        count(event.getAuthentication(), "success", "none");
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        count(event.getAuthentication(), "failure", event.getException().getClass().getSimpleName());
+    }
+
+    private void count(Authentication authentication, String result, String reason) {
+        Counter.builder("security.authentication")
+                .description("인증 시도 횟수")
+                .tag("type", authentication.getClass().getSimpleName())
+                .tag("result", result)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
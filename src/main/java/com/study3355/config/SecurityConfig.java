@@ -1,7 +1,16 @@
 package com.study3355.config;
 
 import com.study3355.account.AccountService;
+import com.study3355.account.CachingPersistentTokenRepository;
+import com.study3355.account.ConcurrentRememberMeServices;
+import com.study3355.account.UserAccount;
+import com.study3355.ratelimit.RateLimitFilter;
+import com.study3355.ratelimit.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,11 +18,20 @@ import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
-import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
 
 @Configuration
 @EnableWebSecurity
@@ -22,6 +40,33 @@ public class SecurityConfig {
 
     private final AccountService accountService;
     private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.remember-me.key:#{null}}")
+    private String rememberMeKey;
+
+    @Value("${app.remember-me.rotation-grace-millis:10000}")
+    private long rotationGraceMillis;
+
+    // 같은 이메일로 보내는 메일 (회원 가입, 인증 메일 재전송, 이메일 로그인 링크), 같은 닉네임으로 시도하는 회원 가입
+    @Value("${app.rate-limit.mail-per-hour:5}")
+    private int mailPerHour;
+
+    // 같은 아이디(이메일 또는 닉네임)와 IP 로 실패한 로그인
+    @Value("${app.rate-limit.login-per-five-minutes:10}")
+    private int loginPerFiveMinutes;
+
+    // 같은 IP 에서 보내는 위 요청 전체
+    @Value("${app.rate-limit.ip-per-minute:60}")
+    private int ipPerMinute;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int rateLimitMaxKeys;
+
+    // 로컬 외에 메트릭 수집, 관리 기능(/admin)을 사용할 수 있는 네트워크 (예: 10.0.0.0/8)
+    // 프록시 뒤에서는 server.forward-headers-strategy 로 X-Forwarded-For 의 클라이언트 IP 와 비교
+    @Value("${app.actuator.allowed-network:127.0.0.1}")
+    private String actuatorAllowedNetwork;
 
     // 기본적으론 CSRF(Cross-Site Request Forgery)가 활성화되어있음
     // 타사이트에서 form 요청을 보내는 것을 방어
@@ -30,14 +75,27 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain configure(HttpSecurity http) throws Exception {
 
+        String localOrAllowedNetwork = "hasIpAddress('127.0.0.1') or hasIpAddress('::1')"
+                + " or hasIpAddress('" + actuatorAllowedNetwork + "')";
+
         http.authorizeRequests()
                 .mvcMatchers("/", "/login", "/sign-up", "/check-email-token",
-                        "/email-login","/login-by-email" ,"/check-email-login", "/login-link").permitAll()
+                        "/email-login","/login-by-email" ,"/check-email-login", "/login-link", "/check-nickname").permitAll()
                 .mvcMatchers(HttpMethod.GET, "/profile/*").permitAll()
+                // health 는 누구나, 나머지 actuator(메트릭 등)는 로컬과 수집 서버에서만
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).access(localOrAllowedNetwork)
+                // 관리 기능은 관리자로 로그인하고, 거기에 더해 로컬이나 허용한 네트워크에서만
+                .mvcMatchers("/admin/**").access("hasRole('ADMIN') and (" + localOrAllowedNetwork + ")")
                 .anyRequest().authenticated();
 
+        // 메일 발송과 로그인 시도 횟수 제한, 폼 로그인이 비밀번호를 비교하기 전에 걸러냄
+        RateLimitFilter rateLimitFilter = rateLimitFilter();
+        http.addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
+
         http.formLogin()
-                .loginPage("/login").permitAll();
+                .loginPage("/login").permitAll()
+                .failureHandler(loginFailureHandler(rateLimitFilter));
 
         http.logout()
                 .logoutSuccessUrl("/");
@@ -45,18 +103,66 @@ public class SecurityConfig {
         //http.rememberMe().key("qwert");
 
         http.rememberMe()
-                .userDetailsService(accountService)
-                .tokenRepository(tokenRepository()); // username, 토큰(랜덤), 시리즈(랜덤, 고정)
+                .rememberMeServices(rememberMeServices()); // username, 토큰(랜덤), 시리즈(랜덤, 고정)
 
         return http.build();
     }
 
+    // 빈으로 등록하면 서블릿 필터로도 한 번 더 등록되므로 시큐리티 필터 체인에만 추가
+    private RateLimitFilter rateLimitFilter() {
+        SlidingWindowRateLimiter mail = new SlidingWindowRateLimiter("mail", mailPerHour, Duration.ofHours(1), rateLimitMaxKeys);
+        SlidingWindowRateLimiter login = new SlidingWindowRateLimiter("login", loginPerFiveMinutes, Duration.ofMinutes(5), rateLimitMaxKeys);
+        SlidingWindowRateLimiter ip = new SlidingWindowRateLimiter("ip", ipPerMinute, Duration.ofMinutes(1), rateLimitMaxKeys);
+
+        SlidingWindowRateLimiter nickname = new SlidingWindowRateLimiter("nickname", mailPerHour, Duration.ofHours(1), rateLimitMaxKeys);
+
+        return new RateLimitFilter(ip, meterRegistry)
+                .rule("POST", "/sign-up", mail, request -> request.getParameter("email"))
+                .rule("POST", "/sign-up", nickname, request -> request.getParameter("nickname"))
+                .rule("POST", "/email-login", mail, request -> request.getParameter("email"))
+                .rule("GET", "/resend-confirm-email", mail, SecurityConfig::currentUserEmail)
+                .failureRule("POST", "/login", login, SecurityConfig::usernameAndAddress);
+    }
+
+    // 로그인 실패만 횟수 제한에 기록, 그 외에는 기본 동작(/login?error)과 같음
+    private static SimpleUrlAuthenticationFailureHandler loginFailureHandler(RateLimitFilter rateLimitFilter) {
+        return new SimpleUrlAuthenticationFailureHandler("/login?error") {
+            @Override
+            public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                                AuthenticationException exception) throws IOException, ServletException {
+                rateLimitFilter.recordFailure(request);
+                super.onAuthenticationFailure(request, response, exception);
+            }
+        };
+    }
+
+    // 아이디와 IP 를 묶어서 셈 -> 다른 곳에서 틀린 비밀번호를 계속 보내도 회원 본인의 로그인은 막히지 않음
+    // 여러 IP 로 나눠서 시도하는 경우는 IP 별 제한(ip-per-minute)으로 막음
+    private static String usernameAndAddress(HttpServletRequest request) {
+        String username = request.getParameter("username");
+        return username == null || username.isBlank() ? null : username.trim() + " " + request.getRemoteAddr();
+    }
+
+    // 로그인한 사용자의 이메일, 아직 인증 정보가 없으면(remember-me 로 처음 들어온 요청) IP 로만 제한
+    private static String currentUserEmail(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserAccount)) {
+            return null;
+        }
+        return ((UserAccount) authentication.getPrincipal()).getEmail();
+    }
+
+    @Bean
+    public CachingPersistentTokenRepository tokenRepository() {
+        // JdbcTokenRepositoryImpl 과 같은 테이블(persistent_logins)을 사용, 조회는 캐시하고 토큰 교체는 모아서 반영
+        return new CachingPersistentTokenRepository(dataSource, 100_000, 30);
+    }
+
     @Bean
-    public PersistentTokenRepository tokenRepository() {
-        JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
-        jdbcTokenRepository.setDataSource(dataSource);
-        // JdbcTokenRepositoryImpl의 메서드를 사용하기 위해선 구현체에서 명시한 테이블이 있어야함.
-        return jdbcTokenRepository;
+    public ConcurrentRememberMeServices rememberMeServices() {
+        // key 를 지정하지 않으면 기동할 때마다 바뀜 (기존과 동일)
+        String key = rememberMeKey != null ? rememberMeKey : UUID.randomUUID().toString();
+        return new ConcurrentRememberMeServices(key, accountService, tokenRepository(), rotationGraceMillis);
     }
 
     @Bean
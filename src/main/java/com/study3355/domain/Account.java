@@ -5,7 +5,6 @@ import lombok.*;
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * 도메인 : 계정
@@ -15,7 +14,8 @@ import java.util.UUID;
  *  @field 닉네임
  *  @field 패스워드
  *  @field 이메일 인증 여부
- *  @field 이메일 인증 시 필요한 토큰
+ *  @field 이메일 인증/로그인 링크 토큰 버전
+ *  @field 관리자 여부
  *  // 프로필
  *  @field 가입 날짜
  *  @field 자기소개
@@ -36,10 +36,16 @@ import java.util.UUID;
 @Builder @AllArgsConstructor @NoArgsConstructor
 public class Account {
 
+    // id 를 50개씩 한 번에 받아옴 (pooled) -> 대량 등록할 때 insert 마다 시퀀스를 조회하지 않고 배치로 묶임
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
+    // 변경될 때마다 증가, 세션의 principal 이 최신인지 확인할 때 사용
+    @Version
+    private Long version;
+
     // 로그인
 
     @Column(unique = true)
@@ -52,14 +58,19 @@ public class Account {
 
     private boolean emailVerified; // 이메일 인증 여부
 
-    private String emailCheckToken; // 이메일 인증 시 필요한 토큰값
+    // 이메일 인증/로그인 링크 토큰은 서명해서 보내고 저장하지 않음 (EmailTokenSigner)
+    // 이 값이 토큰에 들어가고, 로그인 링크를 사용하면 올려서 이전에 보낸 링크를 모두 무효화
+    private int tokenVersion;
 
-    private LocalDateTime emailCheckTokenGeneratedAt;
+    // 관리 기능(/admin) 사용 가능 여부, app.admin.emails 에 적은 계정만 (AdminAccounts)
+    private boolean admin;
 
     // 프로필
 
     private LocalDateTime joinedAt;
 
+    private LocalDateTime updatedAt; // 프로필 페이지의 Last-Modified
+
     private String bio;
 
     private String url;
@@ -68,11 +79,14 @@ public class Account {
 
     private String location;
 
-    // 기본적으로 db 에서 String 은 Varchar(255), 이미지가 커질수 있기때문에 애너테이션 적용
-    @Lob
-    @Basic(fetch = FetchType.EAGER)
+    // 이미지 자체는 ImageStore 에 저장하고, 여기에는 /images/{hash} URL 만 저장
+    // (예전처럼 base64 를 Lob 으로 저장하면 계정을 조회할 때마다 이미지 전체를 읽어옴)
     private String profileImage;
 
+    private String profileImageThumbnail; // 네비게이션 바에 쓰는 작은 크기의 이미지 URL
+
+    private Long profileImageSequence; // 저장된 이미지를 요청한 순서, 늦게 끝난 예전 요청이 덮어쓰지 않도록 비교
+
     // 알림 설정
 
     private boolean studyCreatedByEmail;
@@ -87,25 +101,17 @@ public class Account {
     @ManyToMany
     private Set<Tag> tags;
     
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     // Business Logic
     // 도메인 객체에 대한 비즈니스 로직이 있다고 하면 서비스 계층에 작성하는 것보다, 해당 도메인에 작성
 
-    // 이메일 인증 토큰 수령
-    public void generateEmailCheckToken() {
-        this.emailCheckToken = UUID.randomUUID().toString();
-        this.emailCheckTokenGeneratedAt = LocalDateTime.now();
-    }
-
     public void completeSignUp() {
         this.setEmailVerified(true); // 인증여부 true
         this.setJoinedAt(LocalDateTime.now()); // 가입 날짜 적용
     }
-
-    public boolean isValidToken(String token) {
-        return this.emailCheckToken.equals(token);
-    }
-
-    public boolean canSendConfirmEmail() {
-        return this.emailCheckTokenGeneratedAt.isBefore(LocalDateTime.now().minusHours(1));
-    }
 }
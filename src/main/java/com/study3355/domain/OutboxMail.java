@@ -0,0 +1,99 @@
+package com.study3355.domain;
+
+import lombok.*;
+import org.springframework.mail.SimpleMailMessage;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 도메인 : 발송 대기 메일 (outbox)
+ * 계정 변경과 같은 트랜잭션에서 저장하고, MailDispatcher 가 나중에 모아서 발송
+ * 그래서 SMTP 가 느리거나 실패해도 가입 트랜잭션에는 영향이 없음
+ * 서버가 여러 대여도 같은 메일을 두 번 보내지 않도록, 보내기 전에 SENDING 으로 바꿔서 선점 (claimedBy 는 선점한 배치)
+ */
+@Entity
+@Table(indexes = {@Index(columnList = "status, next_attempt_at"), @Index(columnList = "claimed_by")})
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class OutboxMail {
+
+    public enum Status {
+        PENDING, // 발송 대기 (재시도 포함)
+        SENDING, // 한 서버가 선점해서 보내는 중
+        SENT, // 발송 완료
+        DEAD // 재시도 횟수 초과, 더 이상 발송하지 않음
+    }
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Column(length = 2000)
+    private String text;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    private int attempts;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime sentAt;
+
+    private String lastError;
+
+    @Column(length = 36)
+    private String claimedBy;
+
+    private LocalDateTime claimedAt;
+
+    public static OutboxMail of(SimpleMailMessage message) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxMail.builder()
+                .recipient(String.join(",", message.getTo()))
+                .subject(message.getSubject())
+                .text(message.getText())
+                .status(Status.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    public SimpleMailMessage toMessage() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(recipient.split(","));
+        message.setSubject(subject);
+        message.setText(text);
+        return message;
+    }
+
+    public void sent() {
+        this.status = Status.SENT;
+        this.sentAt = LocalDateTime.now();
+        this.lastError = null;
+        this.claimedBy = null;
+    }
+
+    // 실패할 때마다 대기 시간을 두 배로 늘려서 재시도, 최대 횟수를 넘으면 DEAD
+    public void failed(String error, int maxAttempts, long backoffMillis) {
+        this.attempts++;
+        this.lastError = error == null ? null : error.substring(0, Math.min(error.length(), 255));
+        this.claimedBy = null;
+        if (this.attempts >= maxAttempts) {
+            this.status = Status.DEAD;
+            return;
+        }
+        this.status = Status.PENDING;
+        long delay = backoffMillis << Math.min(this.attempts - 1, 20);
+        this.nextAttemptAt = LocalDateTime.now().plusNanos(delay * 1_000_000L);
+    }
+}
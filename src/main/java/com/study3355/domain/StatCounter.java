@@ -0,0 +1,23 @@
+package com.study3355.domain;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 도메인 : 통계용 카운터
+ * count(*) 대신 값이 바뀔 때마다 증가시켜서 저장 (예: 이메일 인증을 마친 회원 수)
+ * 갱신은 MemberCounter 처럼 JDBC 로 total = total + ? 를 실행해서 동시에 갱신해도 값을 잃지 않음
+ */
+@Entity
+@Getter @Setter @EqualsAndHashCode(of = "name")
+@AllArgsConstructor @NoArgsConstructor
+public class StatCounter {
+
+    @Id @Column(length = 64)
+    private String name;
+
+    private long total;
+}
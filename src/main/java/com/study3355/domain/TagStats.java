@@ -0,0 +1,22 @@
+package com.study3355.domain;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 도메인 : 태그별 통계
+ * 태그를 관심 주제로 등록한 회원 수, account_tags 를 group by 하지 않고 이 값을 읽음
+ * 갱신은 TagPopularity 에서 JDBC 로 member_count = member_count + ? 를 실행 (서버 여러 대가 동시에 반영해도 값을 잃지 않음)
+ */
+@Entity
+@Getter @Setter @EqualsAndHashCode(of = "tagId")
+@AllArgsConstructor @NoArgsConstructor
+public class TagStats {
+
+    @Id
+    private Long tagId;
+
+    private long memberCount;
+}
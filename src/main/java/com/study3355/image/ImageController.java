@@ -0,0 +1,52 @@
+package com.study3355.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequiredArgsConstructor
+public class ImageController {
+
+    // 해시가 곧 내용이기 때문에 한 번 받은 이미지는 다시 검증할 필요가 없음 (1년 + immutable)
+    static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final ImageStore imageStore;
+
+    // static/images 의 로고 파일들과 겹치지 않도록 64자리 hex 만 매핑
+    @GetMapping(ImageStore.URL_PREFIX + "{hash:[0-9a-f]{64}}")
+    public ResponseEntity<Resource> image(@PathVariable String hash) throws IOException {
+        Path path = imageStore.find(hash).orElse(null);
+        if (path == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // ETag 가 있으면 If-None-Match 요청에 대해 스프링이 알아서 304 를 응답함
+        return ResponseEntity.ok()
+                .eTag(hash)
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .contentType(contentTypeOf(path))
+                .contentLength(Files.size(path))
+                .body(new FileSystemResource(path));
+    }
+
+    private MediaType contentTypeOf(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            String guessed = URLConnection.guessContentTypeFromStream(in);
+            return guessed == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(guessed);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.study3355.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 이미지 바이트를 파일 시스템에 저장하는 content-addressed 저장소
+ * 키는 내용의 SHA-256 해시값이므로 같은 이미지는 한 번만 저장되고, 저장된 파일은 절대 바뀌지 않음
+ * 그래서 /images/{hash} 응답은 영구 캐시가 가능함
+ * DB 에는 URL 만 남으므로 저장 위치는 재부팅이나 tmp 정리에 지워지지 않는 곳이어야 함
+ */
+@Slf4j
+@Component
+public class ImageStore {
+
+    public static final String URL_PREFIX = "/images/";
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+
+    private final Path root;
+
+    public ImageStore(@Value("${app.image-store.path:${user.home}/.study3355/images}") String root) {
+        this.root = Paths.get(root).toAbsolutePath();
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("이미지 저장소 디렉토리를 만들 수 없습니다: " + this.root, e);
+        }
+    }
+
+    public static boolean isDataUrl(String value) {
+        return value != null && value.startsWith("data:");
+    }
+
+    public static String toUrl(String hash) {
+        return URL_PREFIX + hash;
+    }
+
+    public String store(byte[] bytes) {
+        return store(new ByteArrayInputStream(bytes));
+    }
+
+    // 임시 파일에 쓰면서 해시를 계산하고, 다 쓴 뒤 해시 이름으로 옮김 -> 메모리에 이미지 전체를 올리지 않음
+    public String store(InputStream in) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root, "upload-", ".tmp");
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                in.transferTo(out);
+            }
+
+            String hash = toHex(digest.digest());
+            Path target = pathOf(hash);
+            if (Files.exists(target)) {
+                return hash;
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // 같은 이미지를 동시에 저장한 경우, 먼저 저장된 파일을 그대로 사용
+            }
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("이미지를 저장할 수 없습니다.", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    // "data:image/png;base64,...." 형태의 문자열을 디코딩해서 저장
+    public String storeDataUrl(String dataUrl) {
+        InputStream encoded = new ByteArrayInputStream(dataUrl.getBytes(StandardCharsets.US_ASCII));
+        return store(decodeDataUrl(encoded));
+    }
+
+    // data URL 스트림에서 헤더(콤마까지)를 건너뛰고, 나머지 base64 본문을 스트리밍 디코딩
+    public static InputStream decodeDataUrl(InputStream dataUrl) {
+        try {
+            int c;
+            while ((c = dataUrl.read()) != -1 && c != ',') {
+                // skip "data:image/png;base64"
+            }
+            if (c == -1) {
+                throw new IllegalArgumentException("올바른 data URL 이 아닙니다.");
+            }
+            return Base64.getMimeDecoder().wrap(dataUrl);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<Path> find(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    // 한 디렉토리에 파일이 너무 많아지지 않도록 해시 앞 두 글자로 디렉토리를 나눔
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("임시 파일을 삭제하지 못했습니다: {}", path, e);
+        }
+    }
+}
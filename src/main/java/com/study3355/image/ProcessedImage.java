@@ -0,0 +1,23 @@
+package com.study3355.image;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 프로필 이미지 처리 결과
+ * 각 크기별로 저장소에 저장된 URL 과, 용량 비교를 위한 바이트 수를 가지고 있음
+ */
+@Getter
+@AllArgsConstructor
+public class ProcessedImage {
+
+    private final String profileImage; // 프로필 화면용 (125px)
+
+    private final String thumbnail; // 네비게이션 바용 (24px)
+
+    private final long sourceBytes;
+
+    private final long profileImageBytes;
+
+    private final long thumbnailBytes;
+}
@@ -0,0 +1,80 @@
+package com.study3355.image;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 예전에는 account.profile_image 에 base64 data URL 을 그대로 저장했음
+ * 기동 시 남아있는 data URL 을 이미지 파이프라인으로 처리해서 저장소로 옮기고, 컬럼에는 /images/{hash} URL 만 남김
+ * id 기준으로 조금씩 읽고(keyset), Lob 은 스트림으로 읽어서 한 번에 한 행의 이미지만 다룸
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProfileImageMigration {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String SELECT_SQL =
+            "select id, profile_image from account where id > ? and profile_image like 'data:%' order by id";
+
+    private static final String UPDATE_SQL =
+            "update account set profile_image = ?, profile_image_thumbnail = ?, version = version + 1 where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProfileImagePipeline profileImagePipeline;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long lastId = 0;
+        int migrated = 0;
+
+        while (true) {
+            List<Object[]> updates = new ArrayList<>();
+            long[] maxId = {lastId};
+            long from = lastId;
+
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_SQL);
+                ps.setLong(1, from);
+                ps.setMaxRows(BATCH_SIZE);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                long id = rs.getLong(1);
+                maxId[0] = id;
+                try (InputStream in = rs.getAsciiStream(2)) {
+                    ProcessedImage image = profileImagePipeline.process(ImageStore.decodeDataUrl(in));
+                    updates.add(new Object[]{image.getProfileImage(), image.getThumbnail(), id});
+                } catch (IOException | IllegalArgumentException | UncheckedIOException e) {
+                    log.warn("account {} 의 프로필 이미지를 옮길 수 없어 건너뜁니다.", id, e);
+                }
+            });
+
+            if (maxId[0] == lastId) {
+                break;
+            }
+            lastId = maxId[0];
+
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                migrated += updates.size();
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("프로필 이미지 {}건을 이미지 저장소로 옮겼습니다.", migrated);
+        }
+    }
+}
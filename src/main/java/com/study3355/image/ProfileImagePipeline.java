@@ -0,0 +1,248 @@
+package com.study3355.image;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 프로필 이미지 처리 파이프라인
+ * 브라우저에서 자른 이미지(data URL)를 디코딩 -> 해상도 제한 -> 크기별로 줄여서 JPEG 로 다시 인코딩 -> 저장소에 저장
+ * 요청 스레드는 작업을 큐에 넣고 바로 돌아가고, 처리는 제한된 수의 작업 스레드에서 진행
+ * 큐가 가득 차면 RejectedExecutionException 을 던져서 호출한 쪽이 나중에 다시 시도하도록 함 (backpressure)
+ */
+@Slf4j
+@Component
+public class ProfileImagePipeline {
+
+    // 템플릿에서 실제로 그리는 크기 (fragments.html 네비게이션 24px, 프로필 화면 125px)
+    public static final int THUMBNAIL_SIZE = 24;
+    public static final int PROFILE_IMAGE_SIZE = 125;
+
+    // 압축 폭탄 방지: 디코딩하기 전에 헤더의 가로 x 세로를 먼저 확인
+    static final long MAX_SOURCE_PIXELS = 25_000_000L;
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final ImageStore imageStore;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer processTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary sourceBytes;
+    private final DistributionSummary storedBytes;
+
+    public ProfileImagePipeline(ImageStore imageStore,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.image-pipeline.threads:2}") int threads,
+                                @Value("${app.image-pipeline.queue-capacity:32}") int queueCapacity) {
+        this.imageStore = imageStore;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "profile-image-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.processTimer = Timer.builder("image.pipeline.process")
+                .description("프로필 이미지 한 장을 처리하는 데 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("image.pipeline.wait")
+                .description("큐에서 대기한 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("image.pipeline.rejected").register(meterRegistry);
+        this.failedCounter = Counter.builder("image.pipeline.failed").register(meterRegistry);
+        this.sourceBytes = DistributionSummary.builder("image.pipeline.bytes")
+                .tag("stage", "source").baseUnit("bytes").register(meterRegistry);
+        this.storedBytes = DistributionSummary.builder("image.pipeline.bytes")
+                .tag("stage", "stored").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("image.pipeline.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws RejectedExecutionException 처리 대기열이 가득 찬 경우
+     */
+    public CompletableFuture<ProcessedImage> submit(String dataUrl) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                InputStream encoded = new ByteArrayInputStream(dataUrl.getBytes(StandardCharsets.US_ASCII));
+                return process(ImageStore.decodeDataUrl(encoded));
+            }, executor).whenComplete((image, e) -> {
+                if (e != null) {
+                    failedCounter.increment();
+                    log.warn("프로필 이미지를 처리하지 못했습니다.", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    // 호출한 스레드에서 바로 처리 (기존 데이터 마이그레이션, 테스트에서 사용)
+    public ProcessedImage process(InputStream imageBytes) {
+        return processTimer.record(() -> {
+            try {
+                CountingInputStream counting = new CountingInputStream(imageBytes);
+                BufferedImage source = decode(counting);
+
+                byte[] profileImage = encodeJpeg(resize(source, PROFILE_IMAGE_SIZE));
+                byte[] thumbnail = encodeJpeg(resize(source, THUMBNAIL_SIZE));
+
+                sourceBytes.record(counting.count);
+                storedBytes.record(profileImage.length + thumbnail.length);
+
+                return new ProcessedImage(
+                        ImageStore.toUrl(imageStore.store(profileImage)),
+                        ImageStore.toUrl(imageStore.store(thumbnail)),
+                        counting.count,
+                        profileImage.length,
+                        thumbnail.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new IllegalArgumentException("이미지 해상도가 너무 큽니다: " + pixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 가운데를 정사각형으로 자른 뒤, 한 번에 크게 줄이면 품질이 떨어지므로 절반씩 줄여나감
+    static BufferedImage resize(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current = source.getSubimage(
+                (source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+
+        int currentSize = side;
+        do {
+            currentSize = currentSize > size ? Math.max(size, currentSize / 2) : size;
+            current = draw(current, currentSize);
+        } while (currentSize != size);
+
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            // JPEG 는 알파 채널이 없기 때문에 투명한 부분은 흰색으로 채움
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -55,6 +55,8 @@ public class ConsoleMailSender implements JavaMailSender {
 
     @Override
     public void send(SimpleMailMessage... simpleMessages) throws MailException {
-
+        for (SimpleMailMessage simpleMessage : simpleMessages) {
+            send(simpleMessage);
+        }
     }
 }
@@ -0,0 +1,166 @@
+package com.study3355.mail;
+
+import com.study3355.domain.OutboxMail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * outbox 에 쌓인 메일을 주기적으로 모아서 발송
+ * 한 번에 batchSize 개씩 send(SimpleMailMessage...) 로 보내고, 실패한 메일만 골라서 재시도 일정을 잡음
+ * 발송(SMTP)하는 동안에는 트랜잭션을 잡고 있지 않음
+ * 보내기 전에 PENDING -> SENDING 으로 바꿔서 선점하고, 바꾼 행만 보냄 -> 서버가 여러 대여도 같은 메일을 한 번만 보냄
+ * 선점한 채로 claimTimeoutMillis 가 지난 메일은 다시 발송 대기로 돌리고, 발송 완료 메일은 retentionDays 가 지나면 삭제
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.mail.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class MailDispatcher {
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final JavaMailSender javaMailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long claimTimeoutMillis;
+    private final int retentionDays;
+
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public MailDispatcher(OutboxMailRepository outboxMailRepository,
+                          JavaMailSender javaMailSender,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.mail.dispatcher.batch-size:50}") int batchSize,
+                          @Value("${app.mail.dispatcher.max-attempts:5}") int maxAttempts,
+                          @Value("${app.mail.dispatcher.backoff-millis:30000}") long backoffMillis,
+                          @Value("${app.mail.dispatcher.claim-timeout-millis:300000}") long claimTimeoutMillis,
+                          @Value("${app.mail.dispatcher.retention-days:7}") int retentionDays) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.retentionDays = retentionDays;
+
+        this.sendTimer = Timer.builder("mail.send")
+                .description("메일 한 배치를 SMTP 로 보내는 데 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.send.messages").tag("result", "sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.send.messages").tag("result", "failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.dispatcher.interval-millis:1000}")
+    public void dispatchPending() {
+        // 가득 찬 배치를 보냈다면 아직 남아있을 수 있으므로 계속 비움
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.dispatcher.maintenance-millis:60000}",
+            fixedDelayString = "${app.mail.dispatcher.maintenance-millis:60000}")
+    public void maintain() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = outboxMailRepository.releaseClaimedBefore(now.minusNanos(claimTimeoutMillis * 1_000_000L));
+        if (released > 0) {
+            log.warn("발송 중으로 남아있던 메일 {}건을 다시 발송 대기로 돌림", released);
+        }
+        int deleted = outboxMailRepository.deleteSentBefore(now.minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("보관 기간이 지난 발송 완료 메일 {}건 삭제", deleted);
+        }
+    }
+
+    // 가득 찬 배치를 선점하지 못했다면(다른 서버가 먼저 가져감) batchSize 보다 작은 값 -> 다음 주기에 이어서
+    public int dispatchBatch() {
+        List<OutboxMail> candidates = outboxMailRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                OutboxMail.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        String claimedBy = UUID.randomUUID().toString();
+        List<Long> candidateIds = candidates.stream().map(OutboxMail::getId).collect(Collectors.toList());
+        if (outboxMailRepository.claim(candidateIds, claimedBy, LocalDateTime.now()) == 0) {
+            return 0;
+        }
+        List<OutboxMail> batch = outboxMailRepository.findByClaimedByAndStatus(claimedBy, OutboxMail.Status.SENDING);
+
+        Map<SimpleMailMessage, Long> messages = new IdentityHashMap<>();
+        batch.forEach(mail -> messages.put(mail.toMessage(), mail.getId()));
+
+        Map<Object, Exception> failedMessages = Collections.emptyMap();
+        MailException batchFailure = null;
+        Timer.Sample sample = Timer.start();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // 일부만 실패한 경우 실패한 메시지만 들어있음, 비어있다면 연결 자체가 실패한 경우
+            failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        } finally {
+            sample.stop(sendTimer);
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        for (Map.Entry<SimpleMailMessage, Long> entry : messages.entrySet()) {
+            Exception failure = batchFailure != null ? batchFailure : failedMessages.get(entry.getKey());
+            if (failure != null) {
+                failures.put(entry.getValue(), failure);
+            }
+        }
+
+        failedCounter.increment(failures.size());
+        sentCounter.increment(messages.size() - failures.size());
+
+        // 발송 결과는 한 트랜잭션에서 반영 (변경 감지)
+        // 선점 시간이 지나서 다른 서버가 다시 가져간 메일은 그 서버가 결과를 남김
+        transactionTemplate.executeWithoutResult(status ->
+                outboxMailRepository.findAllById(messages.values()).forEach(mail -> {
+                    if (!claimedBy.equals(mail.getClaimedBy())) {
+                        return;
+                    }
+                    Exception failure = failures.get(mail.getId());
+                    if (failure == null) {
+                        mail.sent();
+                        return;
+                    }
+                    mail.failed(failure.getMessage(), maxAttempts, backoffMillis);
+                    log.warn("메일 발송 실패 (outbox {}, {}회, {}): {}",
+                            mail.getId(), mail.getAttempts(), mail.getStatus(), failure.getMessage());
+                }));
+        return batch.size();
+    }
+}
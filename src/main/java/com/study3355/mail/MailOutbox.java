@@ -0,0 +1,23 @@
+package com.study3355.mail;
+
+import com.study3355.domain.OutboxMail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 메일을 바로 보내지 않고 outbox 테이블에 저장
+ * 호출한 쪽의 트랜잭션에 참여하므로, 트랜잭션이 롤백되면 메일도 보내지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class MailOutbox {
+
+    private final OutboxMailRepository outboxMailRepository;
+
+    @Transactional
+    public void enqueue(SimpleMailMessage message) {
+        outboxMailRepository.save(OutboxMail.of(message));
+    }
+}
@@ -0,0 +1,45 @@
+package com.study3355.mail;
+
+import com.study3355.domain.OutboxMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+    List<OutboxMail> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(OutboxMail.Status status,
+                                                                          LocalDateTime now,
+                                                                          Pageable pageable);
+
+    List<OutboxMail> findByRecipient(String recipient);
+
+    // 발송할 메일 선점, 아직 PENDING 인 것만 바뀌므로 여러 서버가 같은 메일을 골라도 한 서버만 가져감
+    @Transactional
+    @Modifying
+    @Query(value = "update outbox_mail set status = 'SENDING', claimed_by = :claimedBy, claimed_at = :now " +
+            "where id in (:ids) and status = 'PENDING'", nativeQuery = true)
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedBy") String claimedBy, @Param("now") LocalDateTime now);
+
+    List<OutboxMail> findByClaimedByAndStatus(String claimedBy, OutboxMail.Status status);
+
+    // 보내는 도중에 서버가 내려가서 SENDING 으로 남은 메일을 다시 발송 대기로 (그 사이 보내졌다면 한 번 더 갈 수 있음)
+    @Transactional
+    @Modifying
+    @Query(value = "update outbox_mail set status = 'PENDING', claimed_by = null " +
+            "where status = 'SENDING' and claimed_at < :before", nativeQuery = true)
+    int releaseClaimedBefore(@Param("before") LocalDateTime before);
+
+    // 보관 기간이 지난 발송 완료 메일 삭제 (DEAD 는 확인할 수 있도록 남김)
+    @Transactional
+    @Modifying
+    @Query(value = "delete from outbox_mail where status = 'SENT' and sent_at < :before", nativeQuery = true)
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -1,26 +1,71 @@
 package com.study3355.main;
 
+import com.study3355.account.AccountRepository;
+import com.study3355.account.AccountSummary;
 import com.study3355.account.CurrentUser;
 import com.study3355.domain.Account;
+import com.study3355.tag.SimilarMemberIndex;
+import com.study3355.tag.TagPopularity;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Controller
+@RequiredArgsConstructor
 public class MainController {
 
+    static final int SIMILAR_MEMBERS = 5;
+    static final int POPULAR_TAGS = 10;
+
+    private final SimilarMemberIndex similarMemberIndex;
+    private final AccountRepository accountRepository;
+    private final TagPopularity tagPopularity;
+
     @GetMapping("/")
     public String  home(@CurrentUser Account account, Model model) {
 
         // 인증을한 사용자
         if (account != null ){
             model.addAttribute(account);
+            model.addAttribute("similarMembers", similarMembers(account.getId()));
         }
 
+        // 미리 세어둔 태그별 회원 수에서 상위 N 개 (account_tags 조회 없음)
+        model.addAttribute("popularTags", tagPopularity.popular(POPULAR_TAGS));
+
         return "index";
     }
 
+    // 관심사(태그)가 비슷한 회원, 유사도 순서를 유지하면서 공개 프로필 컬럼만 읽음
+    private List<AccountSummary> similarMembers(Long accountId) {
+        List<SimilarMemberIndex.Match> matches = similarMemberIndex.similar(accountId, SIMILAR_MEMBERS);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> ids = matches.stream().map(SimilarMemberIndex.Match::getAccountId).collect(Collectors.toList());
+        Map<Long, AccountSummary> summaries = accountRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(AccountSummary::getId, Function.identity()));
+
+        List<AccountSummary> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AccountSummary summary = summaries.get(id);
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
     @GetMapping("/login")
     public String login() {
         return "login";
@@ -0,0 +1,167 @@
+package com.study3355.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 메일 발송, 회원 가입, 로그인 요청 횟수 제한
+ * 규칙에 맞는 요청이면 클라이언트 IP 키와 맞는 규칙들의 키(이메일, 닉네임 등)를 차례로 확인해서 하나라도 넘으면 429 + Retry-After 응답
+ * failureRule 은 요청할 때 확인만 하고, 실패했을 때(recordFailure) 센 횟수로 제한 -> 로그인에 성공하는 요청은 세지 않음
+ * 시큐리티 필터 체인의 UsernamePasswordAuthenticationFilter 앞에 두기 때문에 폼 로그인(bcrypt 비교) 전에 걸러짐
+ * 클라이언트 IP 는 request.getRemoteAddr(), 프록시 뒤에서는 server.forward-headers-strategy 로 X-Forwarded-For 값이 들어옴
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final SlidingWindowRateLimiter ipLimiter;
+    private final List<Rule> rules = new ArrayList<>();
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(SlidingWindowRateLimiter ipLimiter, MeterRegistry meterRegistry) {
+        this.ipLimiter = ipLimiter;
+        this.meterRegistry = meterRegistry;
+        registerGauge(ipLimiter);
+    }
+
+    /**
+     * @param key 요청에서 제한할 키를 꺼내는 함수, null 을 돌려주면 IP 만 확인
+     */
+    public RateLimitFilter rule(String method, String path, SlidingWindowRateLimiter limiter,
+                                Function<HttpServletRequest, String> key) {
+        return addRule(new Rule(method, path, limiter, key, false));
+    }
+
+    /**
+     * 실패한 요청만 세는 규칙, 요청이 실패하면 recordFailure 를 호출해야 함
+     */
+    public RateLimitFilter failureRule(String method, String path, SlidingWindowRateLimiter limiter,
+                                       Function<HttpServletRequest, String> key) {
+        return addRule(new Rule(method, path, limiter, key, true));
+    }
+
+    private RateLimitFilter addRule(Rule added) {
+        rules.add(added);
+        if (rules.stream().filter(rule -> rule.limiter == added.limiter).count() == 1) {
+            registerGauge(added.limiter);
+        }
+        return this;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        List<Rule> matched = match(request);
+        if (matched.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = ipLimiter.tryAcquire(request.getRemoteAddr());
+        SlidingWindowRateLimiter rejectedBy = ipLimiter;
+        Rule rejectedRule = matched.get(0);
+        for (Rule rule : matched) {
+            if (retryAfter > 0) {
+                break;
+            }
+            String key = rule.keyOf(request);
+            if (key != null) {
+                retryAfter = rule.failuresOnly ? rule.limiter.check(key) : rule.limiter.tryAcquire(key);
+                rejectedBy = rule.limiter;
+                rejectedRule = rule;
+            }
+        }
+
+        if (retryAfter > 0) {
+            reject(request, response, rejectedRule, rejectedBy, retryAfter);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // 요청이 실패했을 때 (로그인 실패 등) 이 요청에 맞는 failureRule 에 한 번 기록
+    public void recordFailure(HttpServletRequest request) {
+        for (Rule rule : match(request)) {
+            String key = rule.failuresOnly ? rule.keyOf(request) : null;
+            if (key != null) {
+                rule.limiter.record(key);
+            }
+        }
+    }
+
+    private List<Rule> match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<Rule> matched = new ArrayList<>(2);
+        for (Rule rule : rules) {
+            if (rule.method.equalsIgnoreCase(request.getMethod()) && rule.path.equals(path)) {
+                matched.add(rule);
+            }
+        }
+        return matched;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Rule rule,
+                        SlidingWindowRateLimiter limiter, long retryAfterMillis) throws IOException {
+        Counter.builder("ratelimit.rejected")
+                .description("요청 횟수 제한에 걸린 요청 수")
+                .tag("limiter", limiter.getName())
+                .tag("path", rule.path)
+                .register(meterRegistry)
+                .increment();
+        log.info("요청 횟수 제한: {} {} ({}, {})", request.getMethod(), request.getRequestURI(),
+                limiter.getName(), request.getRemoteAddr());
+
+        long seconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(
+                ("요청이 너무 많습니다. " + seconds + "초 후에 다시 시도하세요.").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void registerGauge(SlidingWindowRateLimiter limiter) {
+        Gauge.builder("ratelimit.keys", limiter, SlidingWindowRateLimiter::size)
+                .description("요청 횟수를 기억하고 있는 키 개수")
+                .tag("limiter", limiter.getName())
+                .register(meterRegistry);
+    }
+
+    private static final class Rule {
+
+        final String method;
+        final String path;
+        final SlidingWindowRateLimiter limiter;
+        final Function<HttpServletRequest, String> key;
+        final boolean failuresOnly;
+
+        Rule(String method, String path, SlidingWindowRateLimiter limiter, Function<HttpServletRequest, String> key,
+             boolean failuresOnly) {
+            this.method = method;
+            this.path = path;
+            this.limiter = limiter;
+            this.key = key;
+            this.failuresOnly = failuresOnly;
+        }
+
+        // 대소문자, 앞뒤 공백이 달라도 같은 키, 키가 없으면 null (IP 만 확인)
+        String keyOf(HttpServletRequest request) {
+            String value = key.apply(request);
+            return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.study3355.ratelimit;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 키별 요청 횟수 제한 (sliding window counter)
+ * 키마다 직전 윈도우와 현재 윈도우의 요청 수만 가지고, 직전 윈도우는 아직 겹쳐 있는 비율만큼만 더해서 요청 수를 추정
+ * 키를 stripe 로 나눠서 stripe 단위로 락을 잡음 -> 서로 다른 키끼리는 거의 경합하지 않음
+ * stripe 마다 접근 순서 LinkedHashMap 을 사용해서, 두 윈도우 동안 요청이 없던 키는 지우고 키 개수에 상한을 둠
+ * 모든 요청을 세려면 tryAcquire, 실패한 요청(로그인 실패 등)만 세려면 요청 전에 check 하고 실패하면 record
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final String name;
+    private final int limit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    public SlidingWindowRateLimiter(String name, int limit, Duration window, int maxKeys) {
+        this(name, limit, window, maxKeys, System::currentTimeMillis);
+    }
+
+    SlidingWindowRateLimiter(String name, int limit, Duration window, int maxKeys, LongSupplier clock) {
+        if (limit <= 0 || window.toMillis() <= 0) {
+            throw new IllegalArgumentException("limit 과 window 는 0보다 커야 합니다.");
+        }
+        this.name = name;
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.stripes = new Stripe[STRIPES];
+        int maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+    }
+
+    /**
+     * 요청 한 번을 기록
+     * @return 허용되면 0, 제한에 걸리면 다시 시도할 수 있을 때까지 남은 시간(ms)
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripe(key);
+
+        synchronized (stripe) {
+            stripe.evictIdle(now - 2 * windowMillis);
+
+            Window window = stripe.windows.computeIfAbsent(key, k -> new Window());
+            window.advance(now, windowMillis);
+            window.lastSeen = now;
+
+            long retryAfter = waitMillis(window, now);
+            if (retryAfter == 0) {
+                window.current++;
+            }
+            return retryAfter;
+        }
+    }
+
+    /**
+     * 기록하지 않고, 지금 요청하면 허용되는지만 확인
+     * @return 허용되면 0, 제한에 걸리면 다시 시도할 수 있을 때까지 남은 시간(ms)
+     */
+    public long check(String key) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripe(key);
+
+        synchronized (stripe) {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                return 0;
+            }
+            window.advance(now, windowMillis);
+            window.lastSeen = now; // get 으로 맨 뒤로 옮겨졌으므로 접근 순서와 맞춤 (evictIdle)
+            return waitMillis(window, now);
+        }
+    }
+
+    // 제한과 관계없이 한 번 기록 (이미 처리한 요청)
+    public void record(String key) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripe(key);
+
+        synchronized (stripe) {
+            stripe.evictIdle(now - 2 * windowMillis);
+
+            Window window = stripe.windows.computeIfAbsent(key, k -> new Window());
+            window.advance(now, windowMillis);
+            window.lastSeen = now;
+            window.current++;
+        }
+    }
+
+    private Stripe stripe(String key) {
+        return stripes[spread(key.hashCode()) & (STRIPES - 1)];
+    }
+
+    // 한 건 더 허용되면 0, 아니면 기다려야 하는 시간
+    private long waitMillis(Window window, long now) {
+        long elapsed = now - window.start;
+        double estimated = window.previous * (1 - (double) elapsed / windowMillis) + window.current;
+        return estimated + 1 > limit ? retryAfter(window, elapsed) : 0;
+    }
+
+    // 추정치가 limit - 1 이하로 내려갈 때까지 기다려야 하는 시간
+    private long retryAfter(Window window, long elapsed) {
+        double wait;
+        if (window.current < limit) {
+            // 현재 윈도우 안에서 직전 윈도우의 비중이 줄어들기를 기다림
+            wait = windowMillis * (1 - (double) (limit - 1 - window.current) / window.previous) - elapsed;
+        } else {
+            // 다음 윈도우로 넘어간 뒤, 지금 윈도우(다음엔 직전 윈도우)의 비중이 줄어들기를 기다림
+            wait = (windowMillis - elapsed) + windowMillis * (1 - (double) (limit - 1) / window.current);
+        }
+        return Math.max(1, (long) Math.ceil(wait));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.windows.size();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe {
+
+        final Map<String, Window> windows;
+
+        Stripe(int maxKeys) {
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+
+        // 접근 순서대로 정렬되어 있으므로 앞에서부터 오래된 키만 지우고 멈춤
+        void evictIdle(long idleBefore) {
+            Iterator<Window> iterator = windows.values().iterator();
+            while (iterator.hasNext() && iterator.next().lastSeen < idleBefore) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Window {
+
+        long start;
+        int previous;
+        int current;
+        long lastSeen;
+
+        void advance(long now, long windowMillis) {
+            long currentStart = now - now % windowMillis;
+            if (currentStart == start) {
+                return;
+            }
+            previous = currentStart - start == windowMillis ? current : 0;
+            current = 0;
+            start = currentStart;
+        }
+    }
+}
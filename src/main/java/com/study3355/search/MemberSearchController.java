@@ -0,0 +1,68 @@
+package com.study3355.search;
+
+import com.study3355.account.AccountRepository;
+import com.study3355.account.AccountSummary;
+import com.study3355.api.CursorPage;
+import com.study3355.tag.MemberTagIndex;
+import com.study3355.tag.TagResolver;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 관심사가 같은 회원 찾기
+ * GET /search/members?tags=Spring,JPA&op=and -> 두 태그를 모두 등록한 회원 (op=or 이면 하나라도)
+ * 태그별 회원 비트맵으로 id 를 찾고, 그 중 한 페이지 분량만 DB 에서 읽음
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberSearchController {
+
+    static final String CURSOR_TYPE = "members";
+    static final int MAX_TAGS = 10;
+
+    private final TagResolver tagResolver;
+    private final MemberTagIndex memberTagIndex;
+    private final AccountRepository accountRepository;
+
+    @GetMapping("/search/members")
+    public CursorPage<AccountSummary> searchMembers(@RequestParam List<String> tags,
+                                                    @RequestParam(defaultValue = "and") String op,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        if (tags.size() > MAX_TAGS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "태그는 " + MAX_TAGS + "개까지 검색할 수 있습니다.");
+        }
+        if (!"and".equalsIgnoreCase(op) && !"or".equalsIgnoreCase(op)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "op 는 and 또는 or 입니다.");
+        }
+        boolean all = "and".equalsIgnoreCase(op);
+        int pageSize = CursorPage.size(size);
+        long after = CursorPage.after(CURSOR_TYPE, cursor);
+
+        // 없는 태그는 만들지 않음, AND 검색에서 없는 태그가 있으면 결과도 없음
+        List<Long> tagIds = new ArrayList<>(tagResolver.find(tags).values());
+        if (tagIds.isEmpty() || (all && tagIds.size() < TagResolver.normalizeAll(tags).size())) {
+            return new CursorPage<>(Collections.emptyList(), pageSize, null);
+        }
+
+        RoaringBitmap members = memberTagIndex.find(tagIds, all);
+        List<Long> ids = MemberTagIndex.page(members, after, pageSize + 1);
+        if (ids.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), pageSize, null);
+        }
+
+        // 다음 페이지 여부는 색인 기준으로 판단 (DB 에서 이미 지워진 회원이 있어도 페이지가 끊기지 않도록)
+        String next = ids.size() > pageSize ? CursorPage.cursor(CURSOR_TYPE, ids.get(pageSize - 1)) : null;
+        List<Long> pageIds = ids.size() > pageSize ? ids.subList(0, pageSize) : ids;
+        return new CursorPage<>(accountRepository.findSummariesByIdIn(pageIds), pageSize, next);
+    }
+}
@@ -0,0 +1,26 @@
+package com.study3355.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 색인하는 프로필 컬럼
+@Getter
+@AllArgsConstructor
+public class ProfileDocument {
+
+    private final long accountId;
+
+    private final String bio;
+
+    private final String occupation;
+
+    private final String location;
+
+    public boolean isEmpty() {
+        return isBlank(bio) && isBlank(occupation) && isBlank(location);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
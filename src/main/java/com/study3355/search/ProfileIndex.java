@@ -0,0 +1,191 @@
+package com.study3355.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 프로필(소개, 직업, 지역) 전문 검색 색인 (Lucene, 디스크에 저장)
+ * 한글은 형태소 사전 없이 2글자씩 잘라서(CJK bigram) 색인하고, 영어는 단어 단위 + 소문자
+ * 검색 결과는 점수 순, 점수가 같으면 id 순 -> (점수, id) 다음부터 읽는 방식으로 페이지를 나눔
+ * 쓰기는 ProfileIndexer 의 작업 스레드 하나에서만 함
+ */
+@Component
+public class ProfileIndex {
+
+    static final String ID = "id";
+    static final String ID_SORT = "id_sort";
+    static final String BIO = "bio";
+    static final String OCCUPATION = "occupation";
+    static final String LOCATION = "location";
+
+    private static final Sort SORT = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public ProfileIndex(@Value("${app.profile-index.path:${java.io.tmpdir}/study3355-profile-index}") String path) {
+        try {
+            Path configured = Paths.get(path).toAbsolutePath();
+            Files.createDirectories(configured);
+            this.directory = FSDirectory.open(configured);
+            try {
+                this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            } catch (LockObtainFailedException e) {
+                // 같은 경로를 다른 서버(또는 테스트의 다른 컨텍스트)가 쓰고 있음 -> 서버마다 app.profile-index.path 를 따로 지정해야 함
+                directory.close();
+                throw new IllegalStateException("프로필 색인 " + configured + " 을 다른 곳에서 사용 중입니다. app.profile-index.path 를 따로 지정해야 합니다.", e);
+            }
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("프로필 색인을 열 수 없습니다: " + path, e);
+        }
+    }
+
+    // 내용이 모두 비어있으면 색인에서 제거
+    public void update(Collection<ProfileDocument> profiles, Collection<Long> deletedIds) throws IOException {
+        for (ProfileDocument profile : profiles) {
+            Term id = new Term(ID, String.valueOf(profile.getAccountId()));
+            if (profile.isEmpty()) {
+                writer.deleteDocuments(id);
+            } else {
+                writer.updateDocument(id, toDocument(profile));
+            }
+        }
+        for (Long deletedId : deletedIds) {
+            writer.deleteDocuments(new Term(ID, String.valueOf(deletedId)));
+        }
+    }
+
+    // 다시 만들 때: 모두 지우고 채운 뒤 commit() 하기 전까지 검색은 예전 내용을 봄
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    public void add(Collection<ProfileDocument> profiles) throws IOException {
+        for (ProfileDocument profile : profiles) {
+            if (!profile.isEmpty()) {
+                writer.addDocument(toDocument(profile));
+            }
+        }
+    }
+
+    // 디스크에 저장하고 검색에 반영
+    public void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * @param after 이전 페이지 마지막 결과의 (점수, id), 처음이면 null
+     */
+    public List<Hit> search(String text, Hit after, int limit) throws IOException {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(OCCUPATION, 2.0f, LOCATION, 1.5f, BIO, 1.0f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST); // 입력한 단어(한글은 2글자 조각)가 모두 들어간 프로필
+        Query query = parser.parse(text);
+        if (query == null) {
+            return Collections.emptyList(); // 불용어만 입력한 경우 등
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopFieldDocs docs;
+            if (after == null) {
+                docs = searcher.search(query, limit, SORT, true);
+            } else {
+                // doc 은 (점수, id) 가 같은 결과끼리의 순서인데 id 는 겹치지 않으므로 마지막 doc 으로 둠
+                FieldDoc last = new FieldDoc(Math.max(0, searcher.getIndexReader().maxDoc() - 1), after.getScore(),
+                        new Object[]{after.getScore(), after.getAccountId()});
+                docs = searcher.searchAfter(last, query, limit, SORT, true);
+            }
+
+            List<Hit> hits = new ArrayList<>(docs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : docs.scoreDocs) {
+                FieldDoc fieldDoc = (FieldDoc) scoreDoc;
+                hits.add(new Hit((Long) fieldDoc.fields[1], fieldDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    public int size() throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static Document toDocument(ProfileDocument profile) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(profile.getAccountId()), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID_SORT, profile.getAccountId()));
+        addText(document, BIO, profile.getBio());
+        addText(document, OCCUPATION, profile.getOccupation());
+        addText(document, LOCATION, profile.getLocation());
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+
+        private final long accountId;
+
+        private final float score;
+    }
+}
@@ -0,0 +1,205 @@
+package com.study3355.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 프로필 색인 갱신
+ * 프로필을 수정하면 커밋 후에 회원 id 만 모아두고, 작업 스레드 하나가 모아둔 id 의 현재 값을 DB 에서 읽어서 한 번에 반영
+ * -> 요청 스레드는 색인을 기다리지 않고, 같은 회원을 여러 번 수정해도 한 번만 색인함
+ * 기동 시에는 account 테이블을 id 기준으로 조금씩 읽어서(keyset) 색인을 처음부터 다시 만듦
+ */
+@Slf4j
+@Component
+public class ProfileIndexer {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_SQL =
+            "select id, bio, occupation, location from account where id > ? " +
+            "and (bio is not null or occupation is not null or location is not null) order by id";
+
+    private static final String SELECT_BY_IDS_SQL =
+            "select id, bio, occupation, location from account where id in (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProfileIndex profileIndex;
+    private final ExecutorService executor;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final Timer updateTimer;
+    private final Counter failedCounter;
+
+    public ProfileIndexer(NamedParameterJdbcTemplate jdbcTemplate, ProfileIndex profileIndex, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.profileIndex = profileIndex;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "profile-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.updateTimer = Timer.builder("profile.index.update")
+                .description("모아둔 프로필 변경을 색인에 반영하는 데 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("profile.index.failed").register(meterRegistry);
+        Gauge.builder("profile.index.pending", dirty, Set::size).register(meterRegistry);
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋된 뒤에 반영 (롤백되면 반영하지 않음)
+    public void enqueue(Long accountId) {
+        if (accountId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(accountId);
+                }
+            });
+        } else {
+            schedule(accountId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexAll() {
+        executor.execute(() -> {
+            try {
+                int indexed = rebuild();
+                log.info("프로필 검색 색인 생성: {}건", indexed);
+            } catch (IOException | RuntimeException e) {
+                failedCounter.increment();
+                log.error("프로필 검색 색인을 만들지 못했습니다.", e);
+            }
+        });
+    }
+
+    // 지금까지 맡긴 작업이 모두 끝날 때까지 기다림 (테스트, 벤치마크에서 사용)
+    public void await() {
+        try {
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void schedule(Long accountId) {
+        dirty.add(accountId);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        // 먼저 풀어둬야 반영하는 중에 들어온 변경이 다음 작업으로 예약됨
+        scheduled.set(false);
+        updateTimer.record(() -> {
+            List<Long> ids = new ArrayList<>(BATCH_SIZE);
+            for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+                ids.add(it.next());
+                it.remove();
+                if (ids.size() == BATCH_SIZE || !it.hasNext()) {
+                    update(ids);
+                    ids.clear();
+                }
+            }
+        });
+    }
+
+    private void update(List<Long> ids) {
+        try {
+            Map<Long, ProfileDocument> profiles = new LinkedHashMap<>();
+            jdbcTemplate.query(SELECT_BY_IDS_SQL, new MapSqlParameterSource("ids", ids),
+                    (RowCallbackHandler) rs -> {
+                        ProfileDocument profile = toProfile(rs);
+                        profiles.put(profile.getAccountId(), profile);
+                    });
+
+            // 그 사이에 탈퇴한 회원은 색인에서 제거
+            Set<Long> deleted = new HashSet<>(ids);
+            deleted.removeAll(profiles.keySet());
+
+            profileIndex.update(profiles.values(), deleted);
+            profileIndex.commit();
+        } catch (IOException | RuntimeException e) {
+            // 다음 수정이나 재기동 때 다시 색인되므로 기록만 남김
+            failedCounter.increment();
+            log.warn("프로필 {}건을 색인하지 못했습니다.", ids.size(), e);
+        }
+    }
+
+    private int rebuild() throws IOException {
+        profileIndex.deleteAll();
+
+        long lastId = 0;
+        int indexed = 0;
+        while (true) {
+            List<ProfileDocument> batch = new ArrayList<>(BATCH_SIZE);
+            long from = lastId;
+            jdbcTemplate.getJdbcTemplate().query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_SQL);
+                ps.setLong(1, from);
+                ps.setMaxRows(BATCH_SIZE);
+                return ps;
+            }, (RowCallbackHandler) rs -> batch.add(toProfile(rs)));
+
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getAccountId();
+            profileIndex.add(batch);
+            indexed += batch.size();
+        }
+
+        profileIndex.commit();
+        return indexed;
+    }
+
+    private static ProfileDocument toProfile(ResultSet rs) throws SQLException {
+        return new ProfileDocument(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+    }
+
+    // 색인을 닫기 전에 진행 중인 반영은 끝냄
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
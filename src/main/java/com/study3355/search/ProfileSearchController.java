@@ -0,0 +1,80 @@
+package com.study3355.search;
+
+import com.study3355.account.AccountRepository;
+import com.study3355.account.AccountSummary;
+import com.study3355.api.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 프로필 검색
+ * GET /search/profiles?q=백엔드 서울 -> 소개, 직업, 지역에 두 단어가 모두 들어간 회원을 관련도 순으로
+ * 색인에서 한 페이지 분량의 id 만 찾고, 화면에 보여줄 내용은 DB 에서 읽음
+ * 커서에는 마지막 결과의 (점수, id) 를 담음 -> 색인이 바뀌면 점수도 조금 바뀔 수 있어서 페이지 경계가 약간 어긋날 수 있음
+ */
+@RestController
+@RequiredArgsConstructor
+public class ProfileSearchController {
+
+    static final String CURSOR_TYPE = "profiles";
+    static final int MAX_QUERY_LENGTH = 100;
+
+    private final ProfileIndex profileIndex;
+    private final AccountRepository accountRepository;
+
+    @GetMapping("/search/profiles")
+    public CursorPage<AccountSummary> searchProfiles(@RequestParam String q,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) throws IOException {
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "검색어는 " + MAX_QUERY_LENGTH + "자까지 입력할 수 있습니다.");
+        }
+        int pageSize = CursorPage.size(size);
+        ProfileIndex.Hit after = cursor == null || cursor.isEmpty() ? null : decode(CursorPage.after(CURSOR_TYPE, cursor));
+        if (q.isBlank()) {
+            return new CursorPage<>(Collections.emptyList(), pageSize, null);
+        }
+
+        List<ProfileIndex.Hit> hits = profileIndex.search(q, after, pageSize + 1);
+        if (hits.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), pageSize, null);
+        }
+
+        String next = hits.size() > pageSize ? CursorPage.cursor(CURSOR_TYPE, encode(hits.get(pageSize - 1))) : null;
+        List<ProfileIndex.Hit> pageHits = hits.size() > pageSize ? hits.subList(0, pageSize) : hits;
+
+        // DB 는 id 순으로 돌려주므로 색인의 순위대로 다시 정렬 (그 사이에 탈퇴한 회원은 빠짐)
+        List<Long> ids = pageHits.stream().map(ProfileIndex.Hit::getAccountId).collect(Collectors.toList());
+        Map<Long, AccountSummary> byId = accountRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(AccountSummary::getId, Function.identity()));
+        List<AccountSummary> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AccountSummary summary = byId.get(id);
+            if (summary != null) {
+                content.add(summary);
+            }
+        }
+        return new CursorPage<>(content, pageSize, next);
+    }
+
+    // 점수(양수 float)의 비트를 위 32비트에, 회원 id 를 아래 32비트에
+    static long encode(ProfileIndex.Hit hit) {
+        return ((long) Float.floatToIntBits(hit.getScore()) << 32) | (hit.getAccountId() & 0xFFFFFFFFL);
+    }
+
+    static ProfileIndex.Hit decode(long cursor) {
+        return new ProfileIndex.Hit(cursor & 0xFFFFFFFFL, Float.intBitsToFloat((int) (cursor >>> 32)));
+    }
+}
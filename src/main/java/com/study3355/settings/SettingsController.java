@@ -1,36 +1,46 @@
 package com.study3355.settings;
 
 import com.study3355.account.AccountService;
+import com.study3355.account.BoundedPasswordEncoder;
 import com.study3355.account.CurrentUser;
+import com.study3355.account.UserAccount;
 import com.study3355.domain.Account;
-import com.study3355.domain.Tag;
+import com.study3355.image.ImageStore;
 import com.study3355.settings.form.*;
 import com.study3355.settings.validator.NicknameValidator;
 import com.study3355.settings.validator.PasswordFormValidator;
 import com.study3355.tag.TagRepository;
+import com.study3355.tag.TagResolver;
+import com.study3355.tag.TagService;
+import com.study3355.tag.TagSuggestIndex;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 @RequiredArgsConstructor
 public class SettingsController {
 
     private final AccountService accountService;
-    private final ModelMapper modelMapper;
     private final NicknameValidator nicknameValidator;
     private final TagRepository tagRepository;
+    private final TagSuggestIndex tagSuggestIndex;
+    private final TagService tagService;
+    private final TagResolver tagResolver;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final AsyncTaskExecutor applicationTaskExecutor; // 해시가 끝난 뒤 DB 저장 (빈 이름으로 주입)
 
     @InitBinder("passwordForm")
     public void passwordFormInitBinder(WebDataBinder webDataBinder) {
@@ -53,13 +63,14 @@ public class SettingsController {
     static final String SETTINGS_TAGS_VIEW_NAME = "settings/tags";
     static final String SETTINGS_TAGS_URL = "/" + SETTINGS_TAGS_VIEW_NAME;
 
+    static final int MAX_TAG_SUGGESTIONS = 20;
+
 
     @GetMapping(SETTINGS_PROFILE_URL)
     public String profileUpdateForm(@CurrentUser Account account, Model model) {
         model.addAttribute(account);
-        // modelMapper는 객체만 받는게 아니라, 타입이나 특정한 클래스를 받을 수 있음
-        // 클래스의 인스턴스를 만들어서 넣어주면 됨
-        model.addAttribute(modelMapper.map(account, Profile.class));
+        // 폼 객체를 만들어서 넣어주면 됨 (리플렉션 없이 필드를 직접 옮김)
+        model.addAttribute(AccountFormMapper.toProfile(account));
         return SETTINGS_PROFILE_VIEW_NAME;
     }
 
@@ -80,6 +91,11 @@ public class SettingsController {
         // spring mvc 기능
         attributes.addFlashAttribute("message", "프로필을 수정했습니다.");
 
+        if (ImageStore.isDataUrl(profile.getProfileImage())
+                && !accountService.updateProfileImage(account, profile.getProfileImage())) {
+            attributes.addFlashAttribute("message", "프로필을 수정했지만, 이미지 처리 요청이 많아 프로필 이미지는 변경하지 못했습니다. 잠시 후 다시 시도하세요.");
+        }
+
         return "redirect:" + SETTINGS_PROFILE_URL;
     }
 
@@ -90,23 +106,40 @@ public class SettingsController {
         return SETTINGS_PASSWORD_VIEW_NAME;
     }
 
+    // 해시는 해시 작업 스레드에서 하고 요청 스레드는 바로 반납, 저장은 applicationTaskExecutor 에서 (해시 스레드를 DB 에 쓰지 않음)
     @PostMapping(SETTINGS_PASSWORD_URL)
-    public String updatePassword(@CurrentUser Account account, @Valid PasswordForm passwordForm, Errors errors,
-                                 Model model, RedirectAttributes attributes) {
+    public DeferredResult<String> updatePassword(@CurrentUser Account account, @Valid PasswordForm passwordForm, Errors errors,
+                                                 Model model, RedirectAttributes attributes) {
+        DeferredResult<String> result = new DeferredResult<>();
         if(errors.hasErrors()) {
             model.addAttribute(account);
-            return SETTINGS_PASSWORD_VIEW_NAME;
+            result.setResult(SETTINGS_PASSWORD_VIEW_NAME);
+            return result;
         }
 
-        accountService.updatePassword(account, passwordForm.getNewPassword());
-        attributes.addFlashAttribute("message", "패스워드를 변경했습니다.");
-        return "redirect:" + SETTINGS_PASSWORD_URL;
+        try {
+            passwordEncoder.encodeAsync(passwordForm.getNewPassword())
+                    .thenAcceptAsync(encodedPassword -> accountService.updateEncodedPassword(account, encodedPassword),
+                            applicationTaskExecutor)
+                    .whenComplete((ignored, e) -> {
+                        if (e != null) {
+                            result.setErrorResult(e instanceof CompletionException ? e.getCause() : e);
+                            return;
+                        }
+                        attributes.addFlashAttribute("message", "패스워드를 변경했습니다.");
+                        result.setResult("redirect:" + SETTINGS_PASSWORD_URL);
+                    });
+        } catch (RejectedExecutionException e) {
+            attributes.addFlashAttribute("message", "요청이 많아 패스워드를 변경하지 못했습니다. 잠시 후 다시 시도하세요.");
+            result.setResult("redirect:" + SETTINGS_PASSWORD_URL);
+        }
+        return result;
     }
 
     @GetMapping(SETTINGS_NOTIFICATIONS_URL)
     public String updateNotificationsForm(@CurrentUser Account account, Model model) {
         model.addAttribute(account);
-        model.addAttribute(modelMapper.map(account, Notifications.class));
+        model.addAttribute(AccountFormMapper.toNotifications(account));
         return SETTINGS_NOTIFICATIONS_VIEW_NAME;
     }
 
@@ -126,7 +159,7 @@ public class SettingsController {
     @GetMapping(SETTINGS_ACCOUNT_URL)
     public String updateAccountForm(@CurrentUser Account account, Model model) {
         model.addAttribute(account);
-        model.addAttribute(modelMapper.map(account, NicknameForm.class));
+        model.addAttribute(AccountFormMapper.toNicknameForm(account));
         return SETTINGS_ACCOUNT_VIEW_NAME;
     }
 
@@ -146,38 +179,44 @@ public class SettingsController {
     @GetMapping(SETTINGS_TAGS_URL)
     public String updateTags(@CurrentUser Account account, Model model) {
         model.addAttribute(account);
-        Set<Tag> tags = accountService.getTags(account);
-        model.addAttribute(
-                "tags",
-                tags.stream().map(Tag::getTitle).collect(Collectors.toList()));
+        model.addAttribute("tags", tagRepository.findTitlesByAccountId(account.getId()));
 
         return SETTINGS_TAGS_VIEW_NAME;
     }
 
-    @PostMapping(SETTINGS_TAGS_URL + "/add")
+    // 화면에서는 잠깐 동안 모인 추가/삭제를 이 요청 하나로 보냄
+    // Account 엔티티를 읽지 않고 세션의 id 로 account_tags 만 수정
+    @PostMapping(SETTINGS_TAGS_URL + "/batch")
     @ResponseBody
-    public ResponseEntity addTag(@CurrentUser Account account, @RequestBody TagForm tagForm) {
-        String title = tagForm.getTagTitle();
-        Tag tag = tagRepository.findByTitle(title)
-                .orElseGet(
-                        () -> tagRepository.save(Tag.builder()
-                                .title(tagForm.getTagTitle())
-                                .build()));
+    public ResponseEntity updateTagsBatch(@CurrentUser UserAccount userAccount, @RequestBody TagBatchForm tagBatchForm) {
+        tagService.updateAccountTags(userAccount.getId(), tagBatchForm.getAdd(), tagBatchForm.getRemove());
+        return ResponseEntity.ok().build();
+    }
 
-        accountService.addTag(account, tag);
+    @PostMapping(SETTINGS_TAGS_URL + "/add")
+    @ResponseBody
+    public ResponseEntity addTag(@CurrentUser UserAccount userAccount, @RequestBody TagForm tagForm) {
+        tagService.updateAccountTags(userAccount.getId(), List.of(tagForm.getTagTitle()), List.of());
         return ResponseEntity.ok().build();
     }
 
+    // Tagify 자동완성, DB 를 조회하지 않고 메모리 인덱스에서 인기순으로 찾음
+    @GetMapping(SETTINGS_TAGS_URL + "/suggest")
+    @ResponseBody
+    public List<String> suggestTags(@RequestParam("q") String query,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        return tagSuggestIndex.suggest(query, Math.min(limit, MAX_TAG_SUGGESTIONS));
+    }
+
     @PostMapping(SETTINGS_TAGS_URL + "/remove")
     @ResponseBody
-    public ResponseEntity removeTag(@CurrentUser Account account, @RequestBody TagForm tagForm) {
+    public ResponseEntity removeTag(@CurrentUser UserAccount userAccount, @RequestBody TagForm tagForm) {
         String title = tagForm.getTagTitle();
-        Tag tag = tagRepository.findByTitle(title).get();
-        if(tag == null) {
+        if (tagResolver.find(List.of(title)).isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        accountService.removeTag(account,tag); // 태그 자체에서 삭제하는 것이 아닌, 유저가 체크한 태그만 제거
+        tagService.updateAccountTags(userAccount.getId(), List.of(), List.of(title)); // 태그 자체에서 삭제하는 것이 아닌, 유저가 체크한 태그만 제거
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,58 @@
+package com.study3355.settings.form;
+
+import com.study3355.domain.Account;
+
+/**
+ * Account <-> 설정 화면 폼 변환
+ * ModelMapper 는 호출할 때마다 리플렉션으로 프로퍼티를 찾고 맞춰보기 때문에, 필드를 직접 옮기는 코드로 대신함
+ * 폼에 필드를 추가하면 여기에도 추가해야 함 (AccountFormMapperTest 가 빠진 필드를 찾아냄)
+ */
+public final class AccountFormMapper {
+
+    private AccountFormMapper() {
+    }
+
+    public static Profile toProfile(Account account) {
+        Profile profile = new Profile();
+        profile.setBio(account.getBio());
+        profile.setUrl(account.getUrl());
+        profile.setOccupation(account.getOccupation());
+        profile.setLocation(account.getLocation());
+        profile.setProfileImage(account.getProfileImage());
+        return profile;
+    }
+
+    // 프로필 이미지는 이미지 파이프라인이 처리한 뒤 URL 만 따로 저장하므로 옮기지 않음
+    public static void copy(Profile profile, Account account) {
+        account.setBio(profile.getBio());
+        account.setUrl(profile.getUrl());
+        account.setOccupation(profile.getOccupation());
+        account.setLocation(profile.getLocation());
+    }
+
+    public static Notifications toNotifications(Account account) {
+        Notifications notifications = new Notifications();
+        notifications.setStudyCreatedByEmail(account.isStudyCreatedByEmail());
+        notifications.setStudyCreatedByWeb(account.isStudyCreatedByWeb());
+        notifications.setStudyEnrollmentResultByEmail(account.isStudyEnrollmentResultByEmail());
+        notifications.setStudyEnrollmentResultByWeb(account.isStudyEnrollmentResultByWeb());
+        notifications.setStudyUpdatedByEmail(account.isStudyUpdatedByEmail());
+        notifications.setStudyUpdatedByWeb(account.isStudyUpdatedByWeb());
+        return notifications;
+    }
+
+    public static void copy(Notifications notifications, Account account) {
+        account.setStudyCreatedByEmail(notifications.isStudyCreatedByEmail());
+        account.setStudyCreatedByWeb(notifications.isStudyCreatedByWeb());
+        account.setStudyEnrollmentResultByEmail(notifications.isStudyEnrollmentResultByEmail());
+        account.setStudyEnrollmentResultByWeb(notifications.isStudyEnrollmentResultByWeb());
+        account.setStudyUpdatedByEmail(notifications.isStudyUpdatedByEmail());
+        account.setStudyUpdatedByWeb(notifications.isStudyUpdatedByWeb());
+    }
+
+    public static NicknameForm toNicknameForm(Account account) {
+        NicknameForm nicknameForm = new NicknameForm();
+        nicknameForm.setNickname(account.getNickname());
+        return nicknameForm;
+    }
+}
@@ -3,7 +3,6 @@ package com.study3355.settings.form;
 import com.study3355.domain.Account;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 // bean 이 아니기 때문에 been 주입 X
 @Data
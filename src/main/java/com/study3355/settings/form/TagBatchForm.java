@@ -0,0 +1,15 @@
+package com.study3355.settings.form;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Tagify 에서 짧은 시간 동안 모인 추가/삭제를 한 번에 보냄
+@Data
+public class TagBatchForm {
+
+    private List<String> add = new ArrayList<>();
+
+    private List<String> remove = new ArrayList<>();
+}
@@ -1,7 +1,6 @@
 package com.study3355.settings.validator;
 
-import com.study3355.account.AccountRepository;
-import com.study3355.domain.Account;
+import com.study3355.account.AccountNameFilter;
 import com.study3355.settings.form.NicknameForm;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -12,7 +11,7 @@ import org.springframework.validation.Validator;
 @RequiredArgsConstructor
 public class NicknameValidator implements Validator {
 
-    private final AccountRepository accountRepository;
+    private final AccountNameFilter accountNameFilter;
 
     @Override
     public boolean supports(Class<?> clazz) {
@@ -22,8 +21,7 @@ public class NicknameValidator implements Validator {
     @Override
     public void validate(Object target, Errors errors) {
         NicknameForm nicknameForm = (NicknameForm) target;
-        Account byNickname = accountRepository.findByNickname(nicknameForm.getNickname());
-        if(byNickname != null) {
+        if(accountNameFilter.isNicknameTaken(nicknameForm.getNickname())) {
             errors.rejectValue("nickname","wrong.value", "입력하신 닉네임을 사용할 수 없습니다.");
         }
     }
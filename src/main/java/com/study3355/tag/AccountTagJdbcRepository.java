@@ -0,0 +1,73 @@
+package com.study3355.tag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Account.tags 의 조인 테이블(account_tags)을 JDBC 로 직접 다룸
+ * 태그 몇 개를 붙이고 떼기 위해 Account 엔티티와 tags 컬렉션 전체를 읽어올 필요가 없음
+ * 같은 계정의 태그를 동시에 바꾸는 요청은 lockAccount 로 줄을 세움 -> 이미 있는 태그를 다시 넣다가 PK 충돌이 나지 않음
+ * (DB 마다 다른 INSERT IGNORE / ON CONFLICT 대신 계정 행 잠금만 사용, PostgreSQL 처럼 오류가 나면 트랜잭션이 깨지는 DB 에서도 동작)
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountTagJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // 트랜잭션 안에서 호출, 커밋할 때까지 같은 계정의 태그를 바꾸려는 다른 트랜잭션은 기다림 (계정이 없으면 false)
+    public boolean lockAccount(Long accountId) {
+        return !jdbcTemplate.queryForList("select id from account where id = :accountId for update",
+                new MapSqlParameterSource("accountId", accountId), Long.class).isEmpty();
+    }
+
+    public Set<Long> findTagIds(Long accountId, Collection<Long> tagIds) {
+        if (tagIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("tagIds", tagIds);
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select tags_id from account_tags where account_id = :accountId and tags_id in (:tagIds)",
+                params, Long.class));
+    }
+
+    public void insert(Long accountId, Collection<Long> tagIds) {
+        jdbcTemplate.batchUpdate("insert into account_tags (account_id, tags_id) values (:accountId, :tagId)",
+                toParams(accountId, List.copyOf(tagIds)));
+    }
+
+    // 실제로 지운 태그 id
+    public Set<Long> delete(Long accountId, Collection<Long> tagIds) {
+        List<Long> ids = List.copyOf(tagIds);
+        return changed(ids, jdbcTemplate.batchUpdate(
+                "delete from account_tags where account_id = :accountId and tags_id = :tagId", toParams(accountId, ids)));
+    }
+
+    private static Set<Long> changed(List<Long> ids, int[] rows) {
+        Set<Long> changed = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (rows[i] > 0) {
+                changed.add(ids.get(i));
+            }
+        }
+        return changed;
+    }
+
+    private static SqlParameterSource[] toParams(Long accountId, List<Long> tagIds) {
+        return tagIds.stream()
+                .map(tagId -> new MapSqlParameterSource()
+                        .addValue("accountId", accountId)
+                        .addValue("tagId", tagId))
+                .toArray(SqlParameterSource[]::new);
+    }
+}
@@ -0,0 +1,131 @@
+package com.study3355.tag;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 태그로 회원 찾기용 역색인 (태그 id -> 그 태그를 등록한 회원 id 비트맵)
+ * account_tags 를 여러 번 조인하지 않고 비트맵끼리 AND/OR 해서 찾음 (RoaringBitmap, 회원 id 는 int 범위)
+ * 기동할 때 account_tags 를 한 번 훑어서 만들고, 이후에는 TagService 에서 커밋한 변경을 반영
+ * 태그마다 비트맵을 복사해서 교체하므로(copy-on-write) 읽을 때는 락이 없음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberTagIndex {
+
+    private static final String SELECT_SQL = "select tags_id, account_id from account_tags";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Map<Long, RoaringBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, RoaringBitmap> building = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs -> building
+                .computeIfAbsent(rs.getLong(1), tagId -> new RoaringBitmap())
+                .add(toInt(rs.getLong(2))));
+
+        long bytes = 0;
+        for (RoaringBitmap bitmap : building.values()) {
+            bitmap.runOptimize();
+            bytes += bitmap.getSizeInBytes();
+        }
+        this.bitmaps = new ConcurrentHashMap<>(building);
+        log.info("태그별 회원 색인 생성: 태그 {}개, {} bytes", building.size(), bytes);
+    }
+
+    public void add(Long accountId, Collection<Long> tagIds) {
+        int member = toInt(accountId);
+        for (Long tagId : tagIds) {
+            bitmaps.compute(tagId, (id, current) -> {
+                RoaringBitmap updated = current == null ? new RoaringBitmap() : current.clone();
+                updated.add(member);
+                return updated;
+            });
+        }
+    }
+
+    public void remove(Long accountId, Collection<Long> tagIds) {
+        int member = toInt(accountId);
+        for (Long tagId : tagIds) {
+            bitmaps.computeIfPresent(tagId, (id, current) -> {
+                RoaringBitmap updated = current.clone();
+                updated.remove(member);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * @param all true 면 모든 태그를 가진 회원(AND), false 면 하나라도 가진 회원(OR)
+     */
+    public RoaringBitmap find(Collection<Long> tagIds, boolean all) {
+        List<RoaringBitmap> found = new ArrayList<>(tagIds.size());
+        for (Long tagId : tagIds) {
+            RoaringBitmap bitmap = bitmaps.get(tagId);
+            if (bitmap != null) {
+                found.add(bitmap);
+            } else if (all) {
+                return new RoaringBitmap(); // 아무도 등록하지 않은 태그가 있으면 AND 결과는 비어있음
+            }
+        }
+        if (found.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        if (!all) {
+            return FastAggregation.or(found.iterator());
+        }
+
+        // 작은 비트맵부터 AND 해서 중간 결과를 빨리 줄임
+        found.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = found.get(0).clone();
+        for (int i = 1; i < found.size() && !result.isEmpty(); i++) {
+            result.and(found.get(i));
+        }
+        return result;
+    }
+
+    // after 보다 큰 id 를 작은 것부터 limit 개 (keyset 페이지)
+    public static List<Long> page(RoaringBitmap members, long after, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        PeekableIntIterator iterator = members.getIntIterator();
+        if (after >= Integer.MAX_VALUE) {
+            return ids;
+        }
+        iterator.advanceIfNeeded((int) after + 1);
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    public int memberCount(Long tagId) {
+        RoaringBitmap bitmap = bitmaps.get(tagId);
+        return bitmap == null ? 0 : bitmap.getCardinality();
+    }
+
+    private static int toInt(long accountId) {
+        if (accountId < 0 || accountId > Integer.MAX_VALUE) {
+            throw new IllegalStateException("회원 id 가 비트맵 범위를 벗어났습니다: " + accountId);
+        }
+        return (int) accountId;
+    }
+}
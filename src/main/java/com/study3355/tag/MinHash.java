@@ -0,0 +1,89 @@
+package com.study3355.tag;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 태그 집합의 MinHash 서명과 LSH 밴드 해시
+ * 두 집합의 서명에서 같은 위치의 값이 같을 확률 = 두 집합의 Jaccard 유사도
+ * 서명을 rows 개씩 bands 개로 나눠서, 한 밴드라도 전부 같으면 후보로 봄
+ * -> 유사도 s 인 두 회원이 후보가 될 확률 1 - (1 - s^rows)^bands (32 x 4 이면 s=0.5 -> 0.88, s=0.3 -> 0.23)
+ */
+public final class MinHash {
+
+    private final int bands;
+    private final int rows;
+    private final int[] seeds;
+
+    public MinHash(int bands, int rows, long seed) {
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new int[bands * rows];
+        Random random = new Random(seed); // 서버끼리, 다시 만들 때도 같은 서명이 나오도록 고정
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextInt();
+        }
+    }
+
+    public int getBands() {
+        return bands;
+    }
+
+    public int[] signature(int[] tagIds) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int tagId : tagIds) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = mix(tagId ^ seeds[i]) & Integer.MAX_VALUE;
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // 밴드마다 rows 개 값을 하나의 해시로
+    public int[] bandHashes(int[] tagIds) {
+        int[] signature = signature(tagIds);
+        int[] hashes = new int[bands];
+        for (int band = 0; band < bands; band++) {
+            int hash = 1;
+            for (int i = band * rows; i < (band + 1) * rows; i++) {
+                hash = 31 * hash + signature[i];
+            }
+            hashes[band] = mix(hash);
+        }
+        return hashes;
+    }
+
+    // murmur3 finalizer
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // 정렬된 두 배열의 Jaccard 유사도
+    public static double jaccard(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+}
@@ -0,0 +1,16 @@
+package com.study3355.tag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 인기 관심 주제 (메인 화면, /tags/popular)
+@Getter
+@AllArgsConstructor
+public class PopularTag {
+
+    private final Long id;
+
+    private final String title;
+
+    private final long memberCount;
+}
@@ -0,0 +1,35 @@
+package com.study3355.tag;
+
+import com.study3355.api.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TagApiController {
+
+    static final String CURSOR_TYPE = "tags";
+    static final int MAX_POPULAR = 50;
+
+    private final TagRepository tagRepository;
+    private final TagPopularity tagPopularity;
+
+    @GetMapping("/tags")
+    public CursorPage<TagSummary> tags(@RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size) {
+        int pageSize = CursorPage.size(size);
+        long after = CursorPage.after(CURSOR_TYPE, cursor);
+        return CursorPage.of(CURSOR_TYPE, tagRepository.findSummariesAfter(after, CursorPage.fetch(pageSize)),
+                pageSize, TagSummary::getId);
+    }
+
+    // 관심 주제로 등록한 회원이 많은 태그
+    @GetMapping("/tags/popular")
+    public List<PopularTag> popular(@RequestParam(defaultValue = "10") int size) {
+        return tagPopularity.popular(Math.max(1, Math.min(size, MAX_POPULAR)));
+    }
+}
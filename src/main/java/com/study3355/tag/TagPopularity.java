@@ -0,0 +1,278 @@
+package com.study3355.tag;
+
+import com.study3355.domain.Tag;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 태그별 회원 수 (인기 관심 주제, 자동완성 순위)
+ * MemberCounter 와 같은 방식: tag_stats 에 저장된 값 + 아직 반영하지 않은 증가분(태그마다 LongAdder)
+ * 증가분은 TagService 에서 커밋한 변경만 모았다가 주기적으로 member_count = member_count + ? 로 반영
+ * 반영 전에 서버가 죽으면 값이 어긋날 수 있으므로 기동할 때와 주기적으로 account_tags 를 세서 맞춤
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagPopularity {
+
+    // 자주 보는 상위 N 개는 값이 바뀌었을 때만 다시 계산해 둠
+    static final int CACHED_TOP = 20;
+
+    private static final String COUNT_SQL = "select tags_id, count(*) from account_tags group by tags_id";
+    private static final String SELECT_SQL = "select tag_id, member_count from tag_stats";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TagRepository tagRepository;
+
+    private volatile Map<Long, Long> persisted = Collections.emptyMap(); // DB 에 반영된 값
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>(); // 아직 반영하지 않은 증가분
+
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Top top = new Top(-1, Collections.emptyList());
+
+    // 실제 회원 수로 맞추고 나서 자동완성 색인(TagSuggestIndex)을 만들도록 가장 먼저 실행
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    // 커밋된 태그 추가/삭제
+    public void update(Collection<Long> addTagIds, Collection<Long> removeTagIds) {
+        for (Long tagId : addTagIds) {
+            pending.computeIfAbsent(tagId, id -> new LongAdder()).increment();
+        }
+        for (Long tagId : removeTagIds) {
+            pending.computeIfAbsent(tagId, id -> new LongAdder()).decrement();
+        }
+        if (!addTagIds.isEmpty() || !removeTagIds.isEmpty()) {
+            changes.incrementAndGet();
+        }
+    }
+
+    public long count(Long tagId) {
+        LongAdder delta = pending.get(tagId);
+        return persisted.getOrDefault(tagId, 0L) + (delta == null ? 0 : delta.sum());
+    }
+
+    // 회원 수가 많은 순, 같으면 먼저 만들어진(id 가 작은) 태그, 회원이 없는 태그는 제외
+    public List<Count> top(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (limit > CACHED_TOP) {
+            return computeTop(limit);
+        }
+
+        Top current = this.top;
+        long version = changes.get();
+        if (current.version != version) {
+            current = new Top(version, computeTop(CACHED_TOP));
+            this.top = current;
+        }
+        return current.counts.size() > limit ? current.counts.subList(0, limit) : current.counts;
+    }
+
+    // 상위 N 개의 제목까지, 그 사이에 지워진 태그는 빠짐
+    public List<PopularTag> popular(int limit) {
+        List<Count> counts = top(limit);
+        if (counts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> ids = counts.stream().map(Count::getTagId).collect(Collectors.toList());
+        Map<Long, Tag> tags = tagRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+
+        List<PopularTag> result = new ArrayList<>(counts.size());
+        for (Count count : counts) {
+            Tag tag = tags.get(count.getTagId());
+            if (tag != null) {
+                result.add(new PopularTag(tag.getId(), tag.getTitle(), count.getMembers()));
+            }
+        }
+        return result;
+    }
+
+    // 태그 수 T 에 대해 크기 limit 인 최소 힙으로 O(T log limit)
+    private List<Count> computeTop(int limit) {
+        Comparator<Count> ranking = Comparator.comparingLong(Count::getMembers).reversed()
+                .thenComparingLong(Count::getTagId);
+        PriorityQueue<Count> heap = new PriorityQueue<>(limit + 1, ranking.reversed());
+
+        Set<Long> tagIds = new HashSet<>(persisted.keySet());
+        tagIds.addAll(pending.keySet());
+        for (Long tagId : tagIds) {
+            long members = count(tagId);
+            if (members <= 0) {
+                continue;
+            }
+            Count candidate = new Count(tagId, members);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (ranking.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<Count> result = new ArrayList<>(heap);
+        result.sort(ranking);
+        return Collections.unmodifiableList(result);
+    }
+
+    @Scheduled(initialDelayString = "${app.tag-stats.flush-millis:60000}",
+            fixedDelayString = "${app.tag-stats.flush-millis:60000}")
+    public synchronized void flush() {
+        Map<Long, Long> flushed = new HashMap<>();
+        pending.forEach((tagId, adder) -> {
+            // sumThenReset 은 동시에 증가하는 값을 잃을 수 있으므로, 읽은 만큼만 빼줌
+            long delta = adder.sum();
+            if (delta == 0) {
+                return;
+            }
+            try {
+                add(tagId, delta);
+                flushed.put(tagId, delta);
+            } catch (RuntimeException e) {
+                log.warn("태그 {} 의 회원 수 증가분 {}을 반영하지 못했습니다. 다음 주기에 다시 시도합니다.", tagId, delta, e);
+            }
+        });
+        if (flushed.isEmpty()) {
+            return;
+        }
+
+        // 다른 서버에서 반영한 값까지 다시 읽음
+        this.persisted = select();
+        flushed.forEach((tagId, delta) -> pending.get(tagId).add(-delta));
+        changes.incrementAndGet();
+    }
+
+    private void add(Long tagId, long delta) {
+        if (jdbcTemplate.update("update tag_stats set member_count = member_count + ? where tag_id = ?", delta, tagId) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into tag_stats (tag_id, member_count) values (?, ?)", tagId, delta);
+        } catch (DuplicateKeyException e) {
+            // 다른 서버에서 먼저 넣은 경우
+            jdbcTemplate.update("update tag_stats set member_count = member_count + ? where tag_id = ?", delta, tagId);
+        }
+    }
+
+    // 실제 회원 수와 비교해서 어긋난 태그만 바로잡음
+    // 증가분은 커밋된 변경이라 count 에 이미 들어있음 -> 나중에 flush 로 더해지므로 count 하기 전에 남아있던 만큼 빼고 저장
+    @Scheduled(initialDelayString = "${app.tag-stats.reconcile-millis:3600000}",
+            fixedDelayString = "${app.tag-stats.reconcile-millis:3600000}")
+    public synchronized void reconcile() {
+        flush();
+
+        Map<Long, Long> unflushed = new HashMap<>();
+        pending.forEach((tagId, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                unflushed.put(tagId, delta);
+            }
+        });
+
+        Map<Long, Long> actual = new HashMap<>();
+        jdbcTemplate.query(COUNT_SQL, (RowCallbackHandler) rs -> actual.put(rs.getLong(1), rs.getLong(2)));
+        unflushed.forEach((tagId, delta) -> {
+            long members = actual.getOrDefault(tagId, 0L) - delta;
+            if (members == 0) {
+                actual.remove(tagId);
+            } else {
+                actual.put(tagId, members);
+            }
+        });
+        Map<Long, Long> stored = new HashMap<>(select());
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        actual.forEach((tagId, members) -> {
+            Long storedMembers = stored.remove(tagId);
+            if (storedMembers == null) {
+                inserts.add(new Object[]{tagId, members});
+            } else if (storedMembers.longValue() != members) {
+                updates.add(new Object[]{members, tagId});
+            }
+        });
+        // 회원이 아무도 없는 태그
+        List<Object[]> deletes = stored.keySet().stream().map(tagId -> new Object[]{tagId}).collect(Collectors.toList());
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into tag_stats (tag_id, member_count) values (?, ?)", inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("update tag_stats set member_count = ? where tag_id = ?", updates);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("delete from tag_stats where tag_id = ?", deletes);
+        }
+        if (updates.size() + deletes.size() > 0) {
+            log.info("태그 회원 수 보정: {}개 수정, {}개 삭제", updates.size(), deletes.size());
+        }
+
+        this.persisted = actual;
+        changes.incrementAndGet();
+    }
+
+    private Map<Long, Long> select() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs -> counts.put(rs.getLong(1), rs.getLong(2)));
+        return counts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Count {
+
+        private final long tagId;
+
+        private final long members;
+    }
+
+    private static final class Top {
+
+        final long version;
+        final List<Count> counts;
+
+        Top(long version, List<Count> counts) {
+            this.version = version;
+            this.counts = counts;
+        }
+    }
+}
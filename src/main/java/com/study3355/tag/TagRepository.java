@@ -1,12 +1,26 @@
 package com.study3355.tag;
 
 import com.study3355.domain.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Transactional(readOnly = true)
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByTitle(String title);
+
+    List<Tag> findByTitleIn(Collection<String> titles);
+
+    @Query("select t.title from Account a join a.tags t where a.id = :accountId order by t.title")
+    List<String> findTitlesByAccountId(@Param("accountId") Long accountId);
+
+    // 태그 목록 API, id 다음부터 pageable 크기만큼 (keyset)
+    @Query("select new com.study3355.tag.TagSummary(t.id, t.title) from Tag t where t.id > :after order by t.id")
+    List<TagSummary> findSummariesAfter(@Param("after") long after, Pageable pageable);
 }
@@ -0,0 +1,167 @@
+package com.study3355.tag;
+
+import com.study3355.domain.Tag;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 태그 제목 -> id 변환
+ * 태그는 한 번 만들어지면 id 가 바뀌거나 지워지지 않으므로, 한 번 찾은 id 는 메모리에 계속 들고 있음 -> 대부분 DB 조회 없음
+ * 없는 태그를 만들 때는 같은 제목끼리만 락(lock striping)을 잡고, 다른 서버와 동시에 만드는 경우는
+ * unique 제약조건 위반을 잡아서 먼저 만들어진 태그를 다시 읽음 (insert-or-get)
+ */
+@Slf4j
+@Component
+public class TagResolver {
+
+    private static final int STRIPES = 64;
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    private final TagRepository tagRepository;
+    private final TagSuggestIndex tagSuggestIndex;
+    private final TransactionTemplate requiresNew;
+
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+
+    private final Timer lookupTimer;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter conflictCounter;
+
+    public TagResolver(TagRepository tagRepository,
+                       TagSuggestIndex tagSuggestIndex,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.tagRepository = tagRepository;
+        this.tagSuggestIndex = tagSuggestIndex;
+
+        // 태그 생성은 요청의 트랜잭션과 상관없이 바로 커밋 (실패해도 바깥 트랜잭션은 그대로)
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+
+        this.lookupTimer = Timer.builder("tag.resolve")
+                .description("태그 제목을 id 로 바꾸는 데 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.hitCounter = Counter.builder("tag.resolve.cache").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("tag.resolve.cache").tag("result", "miss").register(meterRegistry);
+        this.conflictCounter = Counter.builder("tag.resolve.conflict").register(meterRegistry);
+    }
+
+    // 없는 태그는 만들어서 반환, key 는 정규화된 제목
+    public Map<String, Long> resolve(Collection<String> titles) {
+        return lookup(normalizeAll(titles), true);
+    }
+
+    // 이미 있는 태그만 반환
+    public Map<String, Long> find(Collection<String> titles) {
+        return lookup(normalizeAll(titles), false);
+    }
+
+    private Map<String, Long> lookup(Set<String> titles, boolean create) {
+        return lookupTimer.record(() -> {
+            Map<String, Long> result = new HashMap<>();
+            List<String> misses = new ArrayList<>();
+            for (String title : titles) {
+                Long id = ids.get(title);
+                if (id != null) {
+                    result.put(title, id);
+                } else {
+                    misses.add(title);
+                }
+            }
+            hitCounter.increment(result.size());
+            missCounter.increment(misses.size());
+
+            if (!misses.isEmpty()) {
+                // 캐시에 없는 것들은 한 번에 조회
+                for (Tag tag : tagRepository.findByTitleIn(misses)) {
+                    ids.put(tag.getTitle(), tag.getId());
+                    result.put(tag.getTitle(), tag.getId());
+                }
+                if (create) {
+                    misses.stream()
+                            .filter(title -> !result.containsKey(title))
+                            .forEach(title -> result.put(title, insertOrGet(title)));
+                }
+            }
+            return result;
+        });
+    }
+
+    private Long insertOrGet(String title) {
+        synchronized (stripes[(title.hashCode() & 0x7fffffff) % STRIPES]) {
+            // 같은 제목을 기다리던 스레드는 먼저 들어간 스레드가 만든 id 를 그대로 사용
+            Long id = ids.get(title);
+            if (id == null) {
+                id = insert(title);
+                ids.put(title, id);
+            }
+            return id;
+        }
+    }
+
+    private Long insert(String title) {
+        try {
+            Long id = requiresNew.execute(status -> tagRepository.saveAndFlush(Tag.builder().title(title).build()).getId());
+            tagSuggestIndex.add(title);
+            return id;
+        } catch (DataIntegrityViolationException e) {
+            // 다른 서버에서 먼저 만든 경우, 이미 커밋되었으므로 새 트랜잭션에서 다시 읽음
+            conflictCounter.increment();
+            log.debug("태그 '{}' 를 동시에 생성해서 이미 있는 태그를 사용합니다.", title);
+            return requiresNew.execute(status -> tagRepository.findByTitle(title))
+                    .map(Tag::getId)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    // 앞뒤 공백 제거, 연속된 공백은 하나로, 유니코드는 NFC 로 맞춤 (한글 자모가 분리되어 들어오는 경우)
+    public static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String composed = Normalizer.normalize(title, Normalizer.Form.NFC);
+        return WHITESPACES.matcher(composed.trim()).replaceAll(" ");
+    }
+
+    public static Set<String> normalizeAll(Collection<String> titles) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (titles != null) {
+            for (String title : titles) {
+                String key = normalize(title);
+                if (!key.isEmpty()) {
+                    normalized.add(key);
+                }
+            }
+        }
+        return normalized;
+    }
+
+    int cacheSize() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.study3355.tag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 계정의 관심 주제(태그) 추가/삭제
+ * 태그 제목은 TagResolver 로 id 로 바꾸고(없으면 생성), account_tags 는 JDBC 배치로 넣고 지움
+ * 커밋한 뒤에 태그별 회원 색인(MemberTagIndex), 비슷한 회원 색인(SimilarMemberIndex), 태그별 회원 수(TagPopularity)에도 반영
+ */
+@Service
+@RequiredArgsConstructor
+public class TagService {
+
+    private final TagResolver tagResolver;
+    private final AccountTagJdbcRepository accountTagJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberTagIndex memberTagIndex;
+    private final SimilarMemberIndex similarMemberIndex;
+    private final TagPopularity tagPopularity;
+
+    // 태그 생성은 TagResolver 에서 각자 짧게 커밋하고, 여기서는 account_tags 수정만 하나의 트랜잭션으로 묶음
+    // (태그를 만드는 동안 커넥션을 두 개씩 잡고 있지 않도록 메서드 전체를 트랜잭션으로 묶지 않음)
+    public void updateAccountTags(Long accountId, Collection<String> addTitles, Collection<String> removeTitles) {
+        Set<String> add = TagResolver.normalizeAll(addTitles);
+        Set<String> remove = TagResolver.normalizeAll(removeTitles);
+
+        // 같은 태그를 추가했다가 바로 지운 경우 -> 아무것도 하지 않음
+        Set<String> both = new HashSet<>(add);
+        both.retainAll(remove);
+        add.removeAll(both);
+        remove.removeAll(both);
+
+        if (add.isEmpty() && remove.isEmpty()) {
+            return;
+        }
+
+        Set<Long> requestedAdd = new HashSet<>(tagResolver.resolve(add).values());
+        Set<Long> requestedRemove = new HashSet<>(tagResolver.find(remove).values());
+
+        // 색인과 회원 수에는 실제로 행이 바뀐 태그만 반영 (같은 요청이 동시에 와도 두 번 세지 않음)
+        Set<Long> addIds = new HashSet<>();
+        Set<Long> removeIds = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            // 같은 계정에 대한 요청은 여기서 하나씩 -> 아래에서 읽은 기존 태그가 커밋할 때까지 바뀌지 않음
+            if (!accountTagJdbcRepository.lockAccount(accountId)) {
+                return;
+            }
+            Set<Long> requested = new HashSet<>(requestedAdd);
+            requested.addAll(requestedRemove);
+            Set<Long> existing = accountTagJdbcRepository.findTagIds(accountId, requested);
+
+            requestedAdd.stream().filter(tagId -> !existing.contains(tagId)).forEach(addIds::add);
+            if (!addIds.isEmpty()) {
+                accountTagJdbcRepository.insert(accountId, addIds);
+            }
+            if (!requestedRemove.isEmpty()) {
+                // 태그 자체가 아니라 계정과의 연결만 제거
+                removeIds.addAll(accountTagJdbcRepository.delete(accountId, requestedRemove));
+            }
+        });
+
+        memberTagIndex.add(accountId, addIds);
+        memberTagIndex.remove(accountId, removeIds);
+        similarMemberIndex.update(accountId, addIds, removeIds);
+        tagPopularity.update(addIds, removeIds);
+    }
+}
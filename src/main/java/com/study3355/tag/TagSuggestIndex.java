@@ -0,0 +1,254 @@
+package com.study3355.tag;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 태그 자동완성용 메모리 인덱스
+ * TagResolver 와 같은 방식으로 정규화한 제목(대소문자 유지 -> 'Spring' 과 'spring' 은 다른 태그)을 대소문자 무시 순서로 정렬해두고,
+ * 접두사는 대소문자를 무시하고 비교해서 해당하는 구간을 이진 탐색으로 찾은 뒤
+ * 인기도(태그를 등록한 회원 수, TagPopularity)에 대한 세그먼트 트리로 구간 안의 상위 N 개를 꺼냄 -> DB 조회 없음
+ * 읽기는 락 없이 volatile snapshot 을 보고, 쓰기(새 태그)는 복사해서 교체 (copy-on-write)
+ * 다시 만드는 동안 추가된 태그는 따로 모아뒀다가 새 snapshot 에 다시 넣음 -> DB 를 읽은 뒤에 생긴 태그도 빠지지 않음
+ * (태그 100만 개 기준 suggest / add / load -> TagSuggestBenchmark)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagSuggestIndex {
+
+    private static final String SELECT_SQL = "select id, title from tag";
+
+    // 대소문자를 무시한 순서로 정렬하고, 대소문자만 다른 태그끼리는 원래 순서 -> 접두사가 (대소문자 무시하고) 같은 태그는 한 구간에 모임
+    private static final Comparator<String> KEY_ORDER =
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TagPopularity tagPopularity;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // rebuild 가 DB 를 읽기 시작한 뒤 add 된 제목, rebuild 중이 아니면 null (this 로 보호)
+    private List<String> addedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+            Map<String, Integer> popularity = new LinkedHashMap<>();
+            // account_tags 를 group by 하지 않고 미리 세어둔 회원 수를 사용
+            jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs ->
+                    popularity.put(rs.getString(2), (int) tagPopularity.count(rs.getLong(1))));
+            load(popularity);
+            log.info("태그 자동완성 인덱스 생성: {}개", popularity.size());
+        }
+    }
+
+    // 회원 수는 조금 늦게 반영되어도 괜찮으므로 주기적으로 다시 만듦 (TagPopularity.load 보다 나중에 실행)
+    @Scheduled(initialDelayString = "${app.tag-index.rebuild-millis:600000}",
+            fixedDelayString = "${app.tag-index.rebuild-millis:600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    // 정렬은 락 밖에서 하고, 교체할 때만 add 와 같은 락을 잡음
+    public void load(Map<String, Integer> popularityByTitle) {
+        List<Entry> entries = new ArrayList<>(popularityByTitle.size());
+        popularityByTitle.forEach((title, popularity) -> entries.add(new Entry(normalize(title), title, popularity)));
+        entries.sort(Comparator.comparing(entry -> entry.key, KEY_ORDER));
+        Snapshot loaded = Snapshot.of(entries);
+
+        synchronized (this) {
+            if (addedDuringRebuild != null) {
+                for (String title : addedDuringRebuild) {
+                    loaded = loaded.with(normalize(title), title);
+                }
+                addedDuringRebuild = null;
+            }
+            this.snapshot = loaded;
+        }
+    }
+
+    // 새로 만들어진 태그 추가, 이미 있으면 무시
+    public synchronized void add(String title) {
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(title);
+        }
+        this.snapshot = snapshot.with(normalize(title), title);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return snapshot.top(key, limit);
+    }
+
+    public int size() {
+        return snapshot.keys.length;
+    }
+
+    private static String normalize(String title) {
+        return TagResolver.normalize(title);
+    }
+
+    private static final class Entry {
+
+        final String key;
+        final String title;
+        final int popularity;
+
+        Entry(String key, String title, int popularity) {
+            this.key = key;
+            this.title = title;
+            this.popularity = popularity;
+        }
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = of(Collections.emptyList());
+
+        final String[] keys;
+        final String[] titles;
+        final int[] popularity;
+        final int[] tree; // tree[n + i] = i, tree[i] = 자식 중 인기도가 높은 쪽의 인덱스
+
+        private Snapshot(String[] keys, String[] titles, int[] popularity) {
+            this.keys = keys;
+            this.titles = titles;
+            this.popularity = popularity;
+
+            int n = keys.length;
+            this.tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        // key 를 정렬 위치에 끼워 넣은 새 snapshot, 이미 있으면 그대로
+        Snapshot with(String key, String title) {
+            int position = Arrays.binarySearch(keys, key, KEY_ORDER);
+            if (position >= 0) {
+                return this;
+            }
+
+            int insertAt = -position - 1;
+            int n = keys.length;
+            String[] newKeys = new String[n + 1];
+            String[] newTitles = new String[n + 1];
+            int[] newPopularity = new int[n + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(titles, 0, newTitles, 0, insertAt);
+            System.arraycopy(popularity, 0, newPopularity, 0, insertAt);
+            newKeys[insertAt] = key;
+            newTitles[insertAt] = title;
+            newPopularity[insertAt] = 1;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, n - insertAt);
+            System.arraycopy(titles, insertAt, newTitles, insertAt + 1, n - insertAt);
+            System.arraycopy(popularity, insertAt, newPopularity, insertAt + 1, n - insertAt);
+            return new Snapshot(newKeys, newTitles, newPopularity);
+        }
+
+        static Snapshot of(List<Entry> sorted) {
+            int n = sorted.size();
+            String[] keys = new String[n];
+            String[] titles = new String[n];
+            int[] popularity = new int[n];
+            for (int i = 0; i < n; i++) {
+                Entry entry = sorted.get(i);
+                keys[i] = entry.key;
+                titles[i] = entry.title;
+                popularity[i] = entry.popularity;
+            }
+            return new Snapshot(keys, titles, popularity);
+        }
+
+        List<String> top(String prefix, int limit) {
+            int from = lowerBound(prefix);
+            int to = lowerBound(prefix + Character.MAX_VALUE);
+            if (from >= to) {
+                return Collections.emptyList();
+            }
+
+            // 구간별 최댓값을 우선순위 큐에 넣고, 꺼낸 위치를 기준으로 구간을 둘로 나눠서 다시 넣음
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[2] == b[2] ? 0 : (better(a[2], b[2]) == a[2] ? -1 : 1));
+            ranges.add(new int[]{from, to, argMax(from, to)});
+
+            List<String> result = new ArrayList<>(limit);
+            while (!ranges.isEmpty() && result.size() < limit) {
+                int[] range = ranges.poll();
+                int best = range[2];
+                result.add(titles[best]);
+                if (range[0] < best) {
+                    ranges.add(new int[]{range[0], best, argMax(range[0], best)});
+                }
+                if (best + 1 < range[1]) {
+                    ranges.add(new int[]{best + 1, range[1], argMax(best + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        // [from, to) 구간에서 인기도가 가장 높은 위치
+        private int argMax(int from, int to) {
+            int n = keys.length;
+            int best = from;
+            for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    best = better(best, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    best = better(best, tree[--r]);
+                }
+            }
+            return best;
+        }
+
+        // 인기도가 같으면 사전순으로 앞선 쪽
+        private int better(int i, int j) {
+            if (popularity[i] != popularity[j]) {
+                return popularity[i] > popularity[j] ? i : j;
+            }
+            return Math.min(i, j);
+        }
+
+        // 대소문자를 무시하고 prefix 보다 앞서지 않는 첫 위치
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (String.CASE_INSENSITIVE_ORDER.compare(keys[mid], prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.study3355.tag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 태그 목록 API 응답
+@Getter
+@AllArgsConstructor
+public class TagSummary {
+
+    private final Long id;
+
+    private final String title;
+}
@@ -10,4 +10,6 @@ import java.lang.annotation.RetentionPolicy;
 public @interface WithAccount {
 
     String value();
+
+    boolean admin() default false; // 관리자 권한(/admin)
 }
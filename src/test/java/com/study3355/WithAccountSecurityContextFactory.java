@@ -1,6 +1,7 @@
 package com.study3355;
 
 import com.study3355.account.AccountService;
+import com.study3355.account.AdminAccounts;
 import com.study3355.account.SignUpForm;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -10,10 +11,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.test.context.support.WithSecurityContextFactory;
 
+import java.util.List;
+
 @RequiredArgsConstructor
 public class WithAccountSecurityContextFactory implements WithSecurityContextFactory<WithAccount> {
 
     private final AccountService accountService;
+    private final AdminAccounts adminAccounts;
 
     @Override
     public SecurityContext createSecurityContext(WithAccount withAccount) {
@@ -25,6 +29,9 @@ public class WithAccountSecurityContextFactory implements WithSecurityContextFac
         signUpForm.setPassword("12345678");
         signUpForm.setEmail(nickname + "@gmail.com");
         accountService.processNewAccount(signUpForm);
+        if (withAccount.admin()) {
+            adminAccounts.grant(List.of(signUpForm.getEmail()));
+        }
 
         UserDetails principal = accountService.loadUserByUsername(nickname);
         Authentication authentication = new UsernamePasswordAuthenticationToken(principal, principal.getPassword(), principal.getAuthorities());
@@ -0,0 +1,112 @@
+package com.study3355.account;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study3355.WithAccount;
+import com.study3355.api.CursorPage;
+import com.study3355.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired ObjectMapper objectMapper;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("cursor 를 따라가면 id 순으로 모든 회원을 한 번씩, 공개 컬럼만 응답")
+    void accounts_keyset() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            accountRepository.save(Account.builder()
+                    .email("api" + i + "@email.com")
+                    .nickname("api" + i)
+                    .password("{noop}12345678")
+                    .bio("소개 " + i)
+                    .build());
+        }
+
+        List<String> nicknames = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/accounts").param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(account -> {
+                assertFalse(account.has("email"));
+                assertFalse(account.has("password"));
+                nicknames.add(account.get("nickname").asText());
+            });
+            pageSizes.add(page.get("content").size());
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+
+        assertEquals(List.of("james", "api0", "api1", "api2", "api3"), nicknames);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("페이지 크기는 최대 100, 잘못된 cursor 는 400")
+    void accounts_limits() throws Exception {
+        mockMvc.perform(get("/accounts").param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(CursorPage.MAX_SIZE));
+
+        mockMvc.perform(get("/accounts").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        String tagCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("tags:1".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/accounts").param("cursor", tagCursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("리포지토리는 REST 로 자동 노출되지 않음")
+    void repositories_not_exported() throws Exception {
+        Account james = accountRepository.findByNickname("james");
+        mockMvc.perform(get("/accounts/" + james.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/outboxMails"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("로그인하지 않으면 목록을 볼 수 없음")
+    void accounts_anonymous() throws Exception {
+        mockMvc.perform(get("/accounts"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
@@ -1,24 +1,36 @@
 package com.study3355.account;
 
 import com.study3355.domain.Account;
+import com.study3355.domain.OutboxMail;
+import com.study3355.image.ProcessedImage;
+import com.study3355.image.ProfileImagePipeline;
+import com.study3355.mail.OutboxMailRepository;
+import com.study3355.settings.form.Profile;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.given;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,10 +42,17 @@ class AccountControllerTest {
 
     @Autowired private MockMvc mockMvc;
     @Autowired private AccountRepository accountRepository;
+    @Autowired private OutboxMailRepository outboxMailRepository;
+    @Autowired private AccountService accountService;
+    @Autowired private AccountNameFilter accountNameFilter;
+    @Autowired private EmailTokenSigner emailTokenSigner;
 
     @MockBean
     JavaMailSender javaMailSender;
 
+    @MockBean
+    ProfileImagePipeline profileImagePipeline;
+
     // 인증 메일 확인 테스트
 
     @Test
@@ -62,13 +81,12 @@ class AccountControllerTest {
                 .nickname("test")
                 .build();
         Account newAccount = accountRepository.save(account);
-        newAccount.generateEmailCheckToken();
+        String token = emailTokenSigner.issue(newAccount, EmailTokenSigner.Purpose.SIGN_UP);
 
         //when
         mockMvc.perform(
                 get("/check-email-token")
-                .param("token", newAccount.getEmailCheckToken())
-                .param("email", newAccount.getEmail())
+                .param("token", token)
                 )
                 .andExpect(status().isOk())
                 .andExpect(model().attributeDoesNotExist("error"))
@@ -94,38 +112,223 @@ class AccountControllerTest {
     @Test
     @DisplayName("회원 가입 처리 - 입력값 오류")
     public void signUpSubmit_with_wrong_input() throws Exception {
-        mockMvc.perform(post("/sign-up")
+        MvcResult result = mockMvc.perform(post("/sign-up")
                 .param("nickname","james")
                 .param("email","errorEmail..")
                 .param("password","12345")
                 .with(csrf())) // csrf로 인한 403 에러 방지
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(view().name("account/sign-up"))
                 .andExpect(unauthenticated());
     }
 
     @Test
+    @DisplayName("회원 가입 처리 - 같은 닉네임으로 계속 시도하면 이메일을 바꿔도 429")
+    public void signUpSubmit_rate_limited_by_nickname() throws Exception {
+        // 다른 테스트와 IP 제한을 나눠 쓰지 않도록 별도의 IP 에서 요청, 입력값 오류라 가입은 되지 않음
+        for (int i = 0; i < 5; i++) {
+            MvcResult result = mockMvc.perform(post("/sign-up")
+                            .param("nickname", "flood")
+                            .param("email", "flood" + i + "@test.com")
+                            .param("password", "12345")
+                            .with(csrf())
+                            .with(request -> { request.setRemoteAddr("10.0.0.23"); return request; }))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/sign-up")
+                        .param("nickname", "FLOOD")
+                        .param("email", "flood-new@test.com")
+                        .param("password", "12345")
+                        .with(csrf())
+                        .with(request -> { request.setRemoteAddr("10.0.0.23"); return request; }))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 저장은 해시 작업 스레드에서 따로 커밋되므로 테스트 트랜잭션을 쓰지 않고 직접 지움
     @DisplayName("회원 가입 처리 - 입력값 정상")
     public void signUpSubmit_with_correct_input() throws Exception {
-        mockMvc.perform(post("/sign-up")
+        MvcResult result = mockMvc.perform(post("/sign-up")
                         .param("nickname","james")
                         .param("email","test@test.com")
                         .param("password","12345678")
                         .with(csrf())
                 )
-                .andExpect(status().is3xxRedirection())
-                .andExpect(view().name("redirect:/"))
-                .andExpect(authenticated().withUsername("james")); // 가입한 회원으로 인증이 되었는지도 체크 가능
+                .andExpect(request().asyncStarted()) // 비밀번호 해시는 요청 스레드가 아닌 곳에서 처리
+                .andReturn();
+
+        try {
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().is3xxRedirection())
+                    .andExpect(view().name("redirect:/"))
+                    .andExpect(authenticated().withUsername("james")); // 가입한 회원으로 인증이 되었는지도 체크 가능
+
+            Account account = accountRepository.findByEmail("test@test.com");
+            assertNotNull(account);
+            assertNotEquals(account.getPassword(),"12345678"); // 패스워드 인코딩 체크
+
+            assertTrue(accountRepository.existsByEmail("test@test.com"));
+
+            // 인증 메일이 outbox 에 저장되었는지 체크 (발송은 MailDispatcher 가 따로 처리)
+            List<OutboxMail> mails = outboxMailRepository.findByRecipient("test@test.com");
+            assertEquals(1, mails.size());
+            assertTrue(mails.get(0).getText().startsWith("/check-email-token?token=" + account.getId() + ".")); // 서명된 토큰
+        } finally {
+            outboxMailRepository.deleteAll(outboxMailRepository.findByRecipient("test@test.com"));
+            Account account = accountRepository.findByEmail("test@test.com");
+            if (account != null) {
+                accountRepository.delete(account);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("인증 메일 확인 - 다른 용도의 토큰, 위조된 토큰")
+    void checkEmailToken_with_forged_token() throws Exception {
+        Account account = accountRepository.save(Account.builder().email("forged@test.com").nickname("forged").build());
+        String loginToken = emailTokenSigner.issue(account, EmailTokenSigner.Purpose.LOGIN);
+        String signUpToken = emailTokenSigner.issue(account, EmailTokenSigner.Purpose.SIGN_UP);
+        String tampered = signUpToken.replaceFirst("^\\d+", String.valueOf(account.getId() + 1));
+
+        for (String token : List.of(loginToken, tampered)) {
+            mockMvc.perform(get("/check-email-token").param("token", token))
+                    .andExpect(model().attribute("error", "wrong.token"))
+                    .andExpect(unauthenticated());
+        }
+    }
+
+    @Test
+    @DisplayName("이메일 로그인 - 링크는 한 번만 사용")
+    void loginByEmail_single_use() throws Exception {
+        Account account = accountRepository.save(Account.builder()
+                .email("link@test.com").nickname("link").password("12345678").build());
+        String token = emailTokenSigner.issue(account, EmailTokenSigner.Purpose.LOGIN);
+
+        mockMvc.perform(get("/login-by-email").param("token", token))
+                .andExpect(model().attributeDoesNotExist("error"))
+                .andExpect(authenticated().withUsername("link"));
+
+        mockMvc.perform(get("/login-by-email").param("token", token))
+                .andExpect(model().attributeExists("error"))
+                .andExpect(unauthenticated());
+    }
+
+    @Test
+    @DisplayName("회원 가입 처리 - 이미 사용중인 닉네임")
+    void signUpSubmit_with_duplicated_nickname() throws Exception {
+        accountRepository.save(Account.builder().email("james@test.com").nickname("james").password("12345678").build());
+        accountNameFilter.addNickname("james");
+
+        MvcResult result = mockMvc.perform(post("/sign-up")
+                        .param("nickname", "james")
+                        .param("email", "other@test.com")
+                        .param("password", "12345678")
+                        .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(view().name("account/sign-up"))
+                .andExpect(model().attributeHasFieldErrors("signUpForm", "nickname"))
+                .andExpect(unauthenticated());
+    }
+
+    @Test
+    @DisplayName("닉네임 사용 가능 여부 확인")
+    void checkNickname() throws Exception {
+        accountService.saveNewAccount(signUpForm("taken", "taken@test.com"));
+
+        mockMvc.perform(get("/check-nickname").param("nickname", "taken"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false));
+
+        mockMvc.perform(get("/check-nickname").param("nickname", "free-nickname"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true));
+
+        mockMvc.perform(get("/check-nickname").param("nickname", "공 백"))
+                .andExpect(jsonPath("$.available").value(false));
+    }
+
+    private static SignUpForm signUpForm(String nickname, String email) {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname(nickname);
+        signUpForm.setEmail(email);
+        signUpForm.setPassword("12345678");
+        return signUpForm;
+    }
+
+    @Test
+    @DisplayName("프로필 - 바뀌지 않았으면 304, 수정하면 다시 렌더링")
+    void viewProfile_conditional_get() throws Exception {
+        Account account = accountRepository.save(Account.builder()
+                .email("profile@test.com")
+                .password("12345678")
+                .nickname("profile")
+                .bio("처음 소개")
+                .build());
+
+        MvcResult first = mockMvc.perform(get("/profile/profile"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().string(containsString("처음 소개")))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/profile/profile").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // 두 번째 익명 요청은 렌더링해 둔 페이지
+        mockMvc.perform(get("/profile/profile"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(first.getResponse().getContentAsString()));
+
+        Profile profile = new Profile();
+        profile.setBio("바뀐 소개");
+        accountService.updateProfile(account, profile);
+
+        mockMvc.perform(get("/profile/profile").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(content().string(containsString("바뀐 소개")));
+    }
+
+    @Test
+    @DisplayName("프로필 이미지 - 먼저 올린 이미지의 처리가 늦게 끝나도 마지막에 올린 이미지로 저장")
+    void updateProfileImage_keeps_latest() {
+        Account account = accountRepository.save(Account.builder()
+                .email("image@test.com")
+                .password("12345678")
+                .nickname("image")
+                .build());
+        CompletableFuture<ProcessedImage> first = new CompletableFuture<>();
+        CompletableFuture<ProcessedImage> second = new CompletableFuture<>();
+        given(profileImagePipeline.submit("data:first")).willReturn(first);
+        given(profileImagePipeline.submit("data:second")).willReturn(second);
+
+        assertTrue(accountService.updateProfileImage(account, "data:first"));
+        assertTrue(accountService.updateProfileImage(account, "data:second"));
 
-        Account account = accountRepository.findByEmail("test@test.com");
-        assertNotNull(account);
-        assertNotEquals(account.getPassword(),"12345678"); // 패스워드 인코딩 체크
-        assertNotNull(account.getEmailCheckToken()); // 토큰이 있는지 체크
+        second.complete(new ProcessedImage("/images/second", "/images/second-thumbnail", 0, 0, 0));
+        first.complete(new ProcessedImage("/images/first", "/images/first-thumbnail", 0, 0, 0));
 
-        assertTrue(accountRepository.existsByEmail("test@test.com"));
+        Account updated = accountRepository.findByNickname("image");
+        assertEquals("/images/second", updated.getProfileImage());
+        assertEquals("/images/second-thumbnail", updated.getProfileImageThumbnail());
 
-        // send 가 호출이 되는가 체크
-        then(javaMailSender).should().send(any(SimpleMailMessage.class));
+        // 먼저 요청한 이미지의 저장이 늦게 도착해도 덮어쓰지 않음
+        assertEquals(0, accountRepository.updateProfileImage(account.getId(), "/images/old", "/images/old-thumbnail", 1L));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.study3355.account;
+
+import com.study3355.domain.Account;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AccountCredentialsCacheTest {
+
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired PasswordEncoder passwordEncoder;
+    @Autowired MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void beforeEach() {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname("james");
+        signUpForm.setEmail("james@email.com");
+        signUpForm.setPassword("12345678");
+        accountService.processNewAccount(signUpForm);
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("이메일, 닉네임 어느 쪽으로도 찾고 두 번째부터는 캐시에서")
+    void load_cached() {
+        double hits = hits();
+
+        UserDetails byEmail = accountService.loadUserByUsername("james@email.com");
+        UserDetails byNickname = accountService.loadUserByUsername("james");
+        UserDetails again = accountService.loadUserByUsername("james");
+
+        assertEquals("james", byEmail.getUsername());
+        assertEquals(((UserAccount) byEmail).getId(), ((UserAccount) byNickname).getId());
+        assertEquals(hits + 1, hits());
+
+        // 인증 후 시큐리티가 패스워드를 지워도 캐시된 값에는 영향 없음
+        ((UserAccount) again).eraseCredentials();
+        assertNotNull(accountService.loadUserByUsername("james").getPassword());
+
+        assertThrows(UsernameNotFoundException.class, () -> accountService.loadUserByUsername("nobody"));
+    }
+
+    @Test
+    @DisplayName("패스워드를 바꾸면 캐시에서 지워서 새 패스워드로 로그인")
+    void evict_on_password_change() {
+        accountService.loadUserByUsername("james");
+
+        Account account = accountRepository.findByNickname("james");
+        accountService.updatePassword(account, "87654321");
+
+        assertTrue(passwordEncoder.matches("87654321", accountService.loadUserByUsername("james").getPassword()));
+        assertTrue(passwordEncoder.matches("87654321", accountService.loadUserByUsername("james@email.com").getPassword()));
+    }
+
+    @Test
+    @DisplayName("닉네임을 바꾸면 예전 닉네임으로는 찾을 수 없음")
+    void evict_on_nickname_change() {
+        accountService.loadUserByUsername("james");
+
+        Account account = accountRepository.findByNickname("james");
+        accountService.updateNickname(account, "james2");
+
+        assertThrows(UsernameNotFoundException.class, () -> accountService.loadUserByUsername("james"));
+        assertEquals("james2", accountService.loadUserByUsername("james@email.com").getUsername());
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", AccountCredentialsCache.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
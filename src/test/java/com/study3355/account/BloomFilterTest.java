@@ -0,0 +1,35 @@
+package com.study3355.account;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("넣은 값은 항상 있다고 나오고, 오탐률은 지정한 값 근처, 크기는 10만개에 약 117KB")
+    void false_positive_rate() {
+        int n = 100_000;
+        BloomFilter filter = new BloomFilter(n, 0.01);
+        for (int i = 0; i < n; i++) {
+            filter.add("n:user" + i);
+        }
+
+        for (int i = 0; i < n; i++) {
+            assertTrue(filter.mightContain("n:user" + i));
+        }
+
+        int falsePositives = 0;
+        int trials = 100_000;
+        for (int i = 0; i < trials; i++) {
+            if (filter.mightContain("n:other" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / trials;
+        assertTrue(rate < 0.02, String.valueOf(rate));
+        // m = -n ln p / (ln 2)^2 = 958,506 bits
+        assertEquals(119_816, filter.sizeInBytes());
+    }
+}
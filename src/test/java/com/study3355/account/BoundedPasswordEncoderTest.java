@@ -0,0 +1,85 @@
+package com.study3355.account;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void afterEach() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("정해진 cost 로 인코딩하고, cost 가 다른 해시는 다시 인코딩 대상")
+    void encode_and_upgrade() {
+        encoder = new BoundedPasswordEncoder(5, 2, 8, new SimpleMeterRegistry());
+
+        String encoded = encoder.encode("12345678");
+        assertTrue(encoded.startsWith("{bcrypt}$2a$05$"), encoded);
+        assertTrue(encoder.matches("12345678", encoded));
+        assertFalse(encoder.matches("00000000", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+
+        String older = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678");
+        assertTrue(encoder.matches("12345678", older));
+        assertTrue(encoder.upgradeEncoding(older));
+
+        String stronger = "{bcrypt}" + new BCryptPasswordEncoder(6).encode("12345678");
+        assertTrue(encoder.upgradeEncoding(stronger), "cost 가 높아도 설정과 다르면 다시 인코딩");
+
+        assertTrue(encoder.matches("12345678", "{noop}12345678"), "예전 형식도 비교는 가능");
+        assertTrue(encoder.upgradeEncoding("{noop}12345678"));
+    }
+
+    @Test
+    @DisplayName("해시 스레드와 대기열이 모두 차면 기다리지 않고 바로 거절")
+    void backpressure() {
+        encoder = new BoundedPasswordEncoder(12, 1, 1, new SimpleMeterRegistry());
+
+        List<CompletableFuture<String>> accepted = new ArrayList<>();
+        accepted.add(encoder.encodeAsync("running"));
+        accepted.add(encoder.encodeAsync("queued"));
+        assertThrows(RejectedExecutionException.class, () -> encoder.encodeAsync("rejected"));
+
+        accepted.forEach(future -> assertTrue(future.join().startsWith("{bcrypt}$2a$12$")));
+    }
+
+    @Test
+    @DisplayName("해시 결과를 기다리는 요청 스레드가 상한에 닿으면 로그인은 기다리지 않고 실패")
+    void bounded_waiting() throws Exception {
+        encoder = new BoundedPasswordEncoder(12, 1, 8, 1, new SimpleMeterRegistry());
+        String encoded = encoder.encodeAsync("12345678").join();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> encoder.matches("12345678", encoded));
+        while (encoder.getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        assertThrows(AuthenticationServiceException.class, () -> encoder.matches("12345678", encoded));
+        assertThrows(RejectedExecutionException.class, () -> encoder.encode("12345678"));
+        assertTrue(waiting.join());
+    }
+
+    @Test
+    @DisplayName("cost 측정 결과는 최소, 최대 범위 안")
+    void calibrate() {
+        int strength = BoundedPasswordEncoder.calibrate(250, 10, 14);
+        assertTrue(strength >= 10 && strength <= 14, String.valueOf(strength));
+        assertEquals(10, BoundedPasswordEncoder.calibrate(1, 10, 14), "목표가 아주 짧으면 최소값");
+
+        encoder = new BoundedPasswordEncoder(strength, 1, 1, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,180 @@
+package com.study3355.account;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CachingPersistentTokenRepositoryTest {
+
+    private static final String KEY = "test-key";
+    private static final int BROWSERS = 20;
+    private static final int REQUESTS_PER_BROWSER = 50;
+
+    private final UserDetailsService userDetailsService =
+            username -> new User(username, "", AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    @Autowired DataSource dataSource;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from persistent_logins");
+    }
+
+    @Test
+    @DisplayName("자동 로그인 요청당 DB 문장 수 - JdbcTokenRepositoryImpl 과 비교")
+    void statements_per_request() {
+        AtomicInteger jdbcStatements = new AtomicInteger();
+        JdbcTokenRepositoryImpl jdbcRepository = new JdbcTokenRepositoryImpl();
+        jdbcRepository.setDataSource(countingDataSource(jdbcStatements));
+        double jdbc = statementsPerRequest(new PersistentTokenBasedRememberMeServices(KEY, userDetailsService, jdbcRepository),
+                jdbcStatements, () -> { });
+
+        AtomicInteger cachedStatements = new AtomicInteger();
+        CachingPersistentTokenRepository cachedRepository =
+                new CachingPersistentTokenRepository(countingDataSource(cachedStatements), 1000, 30);
+        double cached = statementsPerRequest(new ConcurrentRememberMeServices(KEY, userDetailsService, cachedRepository, 10_000),
+                cachedStatements, cachedRepository::flush);
+
+        assertEquals(2.0, jdbc, 0.01); // SELECT + UPDATE
+        assertTrue(cached < 0.1);
+        assertEquals(0, cachedRepository.pendingCount());
+
+        // flush 이후 DB 에는 마지막 토큰이 반영되어 있어야 함 -> 캐시 없이 읽어도 같은 토큰
+        JdbcTokenRepositoryImpl verify = new JdbcTokenRepositoryImpl();
+        verify.setDataSource(dataSource);
+        jdbcTemplate.queryForList("select series from persistent_logins", String.class).forEach(series ->
+                assertEquals(cachedRepository.getTokenForSeries(series).getTokenValue(),
+                        verify.getTokenForSeries(series).getTokenValue()));
+    }
+
+    @Test
+    @DisplayName("같은 쿠키로 동시에 들어온 요청은 토큰 탈취로 보지 않음")
+    void concurrent_requests_from_same_browser() throws Exception {
+        CachingPersistentTokenRepository repository = new CachingPersistentTokenRepository(dataSource, 1000, 30);
+        ConcurrentRememberMeServices services = new ConcurrentRememberMeServices(KEY, userDetailsService, repository, 10_000);
+        Cookie cookie = login(services);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Cookie>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    assertNotNull(services.autoLogin(request(cookie), response));
+                    return response.getCookie(cookie.getName());
+                }));
+            }
+            start.countDown();
+
+            Cookie rotated = null;
+            for (Future<Cookie> result : results) {
+                Cookie next = result.get(10, TimeUnit.SECONDS);
+                if (rotated != null) {
+                    assertEquals(rotated.getValue(), next.getValue()); // 모두 같은 새 토큰을 받음
+                }
+                rotated = next;
+            }
+
+            // 새 토큰으로 다음 요청도 정상
+            assertNotNull(services.autoLogin(request(rotated), new MockHttpServletResponse()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double statementsPerRequest(PersistentTokenBasedRememberMeServices services, AtomicInteger statements,
+                                        Runnable afterRequests) {
+        List<Cookie> cookies = new ArrayList<>();
+        for (int i = 0; i < BROWSERS; i++) {
+            cookies.add(login(services));
+        }
+
+        statements.set(0);
+        for (int round = 0; round < REQUESTS_PER_BROWSER; round++) {
+            for (int i = 0; i < BROWSERS; i++) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                Authentication authentication = services.autoLogin(request(cookies.get(i)), response);
+                assertNotNull(authentication);
+                cookies.set(i, response.getCookie(cookies.get(i).getName()));
+            }
+        }
+        afterRequests.run();
+        return (double) statements.get() / (BROWSERS * REQUESTS_PER_BROWSER);
+    }
+
+    private static Cookie login(PersistentTokenBasedRememberMeServices services) {
+        services.setAlwaysRemember(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        services.loginSuccess(new MockHttpServletRequest(), response,
+                new UsernamePasswordAuthenticationToken("james", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        return response.getCookie(PersistentTokenBasedRememberMeServices.SPRING_SECURITY_REMEMBER_ME_COOKIE_KEY);
+    }
+
+    private static MockHttpServletRequest request(Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookie);
+        return request;
+    }
+
+    // prepareStatement 호출 수를 세는 DataSource
+    private DataSource countingDataSource(AtomicInteger statements) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    if (result instanceof Connection) {
+                        Connection connection = (Connection) result;
+                        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                                (connectionProxy, connectionMethod, connectionArgs) -> {
+                                    if (connectionMethod.getName().startsWith("prepare")
+                                            || connectionMethod.getName().equals("createStatement")) {
+                                        statements.incrementAndGet();
+                                    }
+                                    return invoke(connection, connectionMethod, connectionArgs);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.study3355.account;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTokenSignerTest {
+
+    private final EmailTokenSigner signer = new EmailTokenSigner("test-secret", 72, 60);
+
+    @Test
+    @DisplayName("서명한 토큰은 같은 용도로만 확인됨")
+    void issue_and_verify() {
+        String token = signer.issue(42L, 3, EmailTokenSigner.Purpose.LOGIN, Instant.now().plusSeconds(60));
+
+        EmailTokenSigner.Claims claims = signer.verify(token, EmailTokenSigner.Purpose.LOGIN).orElseThrow();
+        assertEquals(42L, claims.getAccountId());
+        assertEquals(3, claims.getTokenVersion());
+
+        assertTrue(signer.verify(token, EmailTokenSigner.Purpose.SIGN_UP).isEmpty());
+    }
+
+    @Test
+    @DisplayName("만료, 변조, 다른 키로 서명, 형식 오류는 거절")
+    void reject() {
+        Instant future = Instant.now().plusSeconds(60);
+        String expired = signer.issue(42L, 0, EmailTokenSigner.Purpose.LOGIN, Instant.now().minusSeconds(1));
+        String valid = signer.issue(42L, 0, EmailTokenSigner.Purpose.LOGIN, future);
+        String tampered = valid.replaceFirst("^42\\.", "43.");
+        String otherKey = new EmailTokenSigner("other-secret", 72, 60).issue(42L, 0, EmailTokenSigner.Purpose.LOGIN, future);
+
+        for (String token : new String[]{expired, tampered, otherKey, "", "a.b.c.d.e", "1.L.x.0.AAAA", "..", null}) {
+            assertTrue(signer.verify(token, EmailTokenSigner.Purpose.LOGIN).isEmpty(), String.valueOf(token));
+        }
+    }
+
+    @Test
+    @DisplayName("위조 토큰이 쏟아져도 여러 스레드에서 모두 거절")
+    void forged_token_flood() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int perThread = 20_000;
+
+        // 형식과 만료 시각은 맞지만 서명이 틀린 토큰 -> 매번 HMAC 까지 계산해야 하는 가장 비싼 경우
+        long expiresAt = Instant.now().plusSeconds(3600).getEpochSecond();
+        Random random = new Random(42);
+        List<String> forged = new ArrayList<>();
+        for (int i = 0; i < 1024; i++) {
+            byte[] signature = new byte[32];
+            random.nextBytes(signature);
+            forged.add(i + ".L." + expiresAt + ".0." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    int accepted = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        if (signer.verify(forged.get(i & 1023), EmailTokenSigner.Purpose.LOGIN).isPresent()) {
+                            accepted++;
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.study3355.account;
+
+import com.study3355.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MemberCounterTest {
+
+    @Autowired MemberCounter memberCounter;
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+        memberCounter.reconcile();
+    }
+
+    @Test
+    @DisplayName("인증을 마치면 회원 수가 늘고, 같은 링크를 다시 눌러도 그대로")
+    void completeSignUp() {
+        memberCounter.reconcile();
+        long before = memberCounter.current();
+
+        Account account = accountService.saveNewAccount(signUpForm("counter"));
+        assertEquals(before + 1, accountService.completeSignUp(account));
+        assertEquals(before + 1, accountService.completeSignUp(account));
+
+        memberCounter.flush();
+        assertEquals(before + 1, storedTotal());
+    }
+
+    @Test
+    @DisplayName("롤백된 인증은 세지 않고, 보정해도 커밋된 인증을 두 번 세지 않음")
+    void rollback_and_reconcile() {
+        memberCounter.reconcile();
+        long before = memberCounter.current();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Account account = accountService.saveNewAccount(signUpForm("rollback"));
+            assertEquals(before + 1, accountService.completeSignUp(account));
+            status.setRollbackOnly();
+        });
+        assertEquals(before, memberCounter.current());
+
+        Account account = accountService.saveNewAccount(signUpForm("committed"));
+        accountService.completeSignUp(account);
+        assertEquals(before + 1, memberCounter.current());
+
+        memberCounter.reconcile();
+        memberCounter.flush();
+        assertEquals(before + 1, memberCounter.current());
+        assertEquals(before + 1, storedTotal());
+    }
+
+    @Test
+    @DisplayName("동시에 증가시켜도 flush 하면 모두 반영")
+    void concurrent_increments() throws Exception {
+        long before = memberCounter.current();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> {
+                memberCounter.increment();
+                if (Math.random() < 0.01) {
+                    memberCounter.flush(); // 증가하는 중간에 반영
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        memberCounter.flush();
+        assertEquals(before + 10_000, memberCounter.current());
+        assertEquals(before + 10_000, storedTotal());
+    }
+
+    @Test
+    @DisplayName("저장된 값이 어긋나면 실제 회원 수로 보정")
+    void reconcile() {
+        Account account = accountService.saveNewAccount(signUpForm("drift"));
+        accountService.completeSignUp(account);
+        jdbcTemplate.update("update stat_counter set total = 999 where name = ?", MemberCounter.NAME);
+
+        memberCounter.reconcile();
+
+        long verified = jdbcTemplate.queryForObject(
+                "select count(*) from account where email_verified = true", Long.class);
+        assertEquals(verified, storedTotal());
+        assertEquals(verified, memberCounter.current());
+    }
+
+    private long storedTotal() {
+        return jdbcTemplate.queryForObject(
+                "select total from stat_counter where name = ?", Long.class, MemberCounter.NAME);
+    }
+
+    private static SignUpForm signUpForm(String nickname) {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname(nickname);
+        signUpForm.setEmail(nickname + "@test.com");
+        signUpForm.setPassword("12345678");
+        return signUpForm;
+    }
+}
@@ -0,0 +1,102 @@
+package com.study3355.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study3355.domain.Account;
+import lombok.Getter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAccountTest {
+
+    // 세션 저장소(Redis 등)에서 쓰는 JSON 직렬화, 예전 principal 의 Account 는 Serializable 이 아니라서 JDK 직렬화로는 비교할 수 없음
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("세션에 저장되는 principal 크기 - Account 엔티티 전체를 들고 있던 예전 principal 과 비교")
+    void session_size() throws IOException {
+        Account account = sampleAccount();
+
+        UserAccount userAccount = new UserAccount(account);
+        userAccount.eraseCredentials();
+        SecurityContextImpl context = new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(userAccount, null, userAccount.getAuthorities()));
+
+        // 예전 principal: 프로필 이미지 data URL, 소개, 패스워드 해시까지 Account 엔티티 전체
+        LegacyUserAccount legacy = new LegacyUserAccount(account);
+        legacy.eraseCredentials();
+
+        int slim = objectMapper.writeValueAsBytes(userAccount).length;
+        int full = objectMapper.writeValueAsBytes(legacy).length;
+        assertTrue(slim * 20 < full, slim + " bytes vs " + full + " bytes");
+
+        // 프로필 이미지가 URL 이어도 엔티티를 들고 있지 않은 쪽이 작음
+        account.setProfileImage("/images/" + "0".repeat(64));
+        assertTrue(slim < objectMapper.writeValueAsBytes(new LegacyUserAccount(account)).length);
+
+        assertTrue(serializedSize(context) < 2048);
+        assertNull(userAccount.getPassword());
+        assertEquals(account.getId(), userAccount.getId());
+        assertEquals(account.getVersion(), userAccount.getVersion());
+        assertEquals("james", userAccount.getNickname());
+    }
+
+    private Account sampleAccount() {
+        Account account = Account.builder()
+                .id(1L)
+                .version(3L)
+                .email("james@test.com")
+                .nickname("james")
+                .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuuJqBqZpB9zJm1GG3p6bL6Jx0bN1yP2Z2")
+                .bio("짧은 소개를 수정하는 경우.")
+                .url("https://study3355.com")
+                .occupation("개발자")
+                .location("Seoul")
+                .emailVerified(true)
+                .joinedAt(LocalDateTime.now())
+                .profileImage(legacyProfileImage())
+                .build();
+        return account;
+    }
+
+    // 브라우저 cropper 가 보내던 크기의 data URL (대략 60KB)
+    private static String legacyProfileImage() {
+        byte[] bytes = new byte[45_000];
+        new Random(42).nextBytes(bytes);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static int serializedSize(Serializable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.size();
+    }
+
+    // 바꾸기 전의 UserAccount
+    @Getter
+    static class LegacyUserAccount extends User {
+
+        private final Account account;
+
+        LegacyUserAccount(Account account) {
+            super(account.getNickname(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
+            this.account = account;
+        }
+    }
+}
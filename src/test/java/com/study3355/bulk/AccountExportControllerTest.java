@@ -0,0 +1,135 @@
+package com.study3355.bulk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study3355.WithAccount;
+import com.study3355.account.AccountRepository;
+import com.study3355.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountExportControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountImporter accountImporter;
+    @Autowired AccountRepository accountRepository;
+    @Autowired ObjectMapper objectMapper;
+
+    @BeforeEach
+    void beforeEach() {
+        List<ImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ImportRow row = new ImportRow();
+            row.setEmail("export" + i + "@email.com");
+            row.setNickname("export" + i);
+            row.setPassword("{noop}12345678");
+            row.setEmailVerified(i == 0);
+            row.setTags(i == 0 ? Arrays.asList("Spring", "JPA") : new ArrayList<>());
+            rows.add(row);
+        }
+        accountImporter.importRows(rows.iterator());
+
+        Account account = accountRepository.findByEmail("export1@email.com");
+        account.setBio("짧은 소개, \"따옴표\"");
+        accountRepository.save(account);
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @WithAccount(value = "admin", admin = true)
+    @DisplayName("CSV 내보내기 - 태그는 | 로 구분, 비밀번호는 내보내지 않음")
+    void export_csv() throws Exception {
+        String body = mockMvc.perform(get("/admin/accounts/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", startsWith("attachment")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = withoutAdmin(body);
+        assertEquals(4, lines.length);
+        assertEquals(String.join(",", AccountExporter.CSV_HEADER), lines[0]);
+        assertTrue(lines[1].contains(",export0@email.com,export0,true,"));
+        assertTrue(lines[1].endsWith(",JPA|Spring") || lines[1].endsWith(",Spring|JPA"), lines[1]);
+        assertTrue(lines[2].contains(",\"짧은 소개, \"\"따옴표\"\"\","), lines[2]);
+        assertFalse(body.contains("{noop}"));
+
+        // 내보낸 CSV 는 등록용 reader 로 다시 읽을 수 있음
+        List<String> values = CsvImportReader.split(lines[2]);
+        assertEquals("짧은 소개, \"따옴표\"", values.get(8));
+    }
+
+    @Test
+    @WithAccount(value = "admin", admin = true)
+    @DisplayName("JSONL 내보내기 - 한 줄에 회원 한 명")
+    void export_jsonl() throws Exception {
+        String body = mockMvc.perform(get("/admin/accounts/export").param("format", "jsonl"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = withoutAdmin(body);
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("export0@email.com", first.get("email").asText());
+        assertTrue(first.get("emailVerified").asBoolean());
+        assertEquals(2, first.get("tags").size());
+        assertFalse(first.has("password"));
+        assertEquals(0, objectMapper.readTree(lines[1]).get("tags").size());
+    }
+
+    @Test
+    @WithAccount(value = "admin", admin = true)
+    @DisplayName("모르는 형식은 400, 관리자라도 다른 곳에서는 내보낼 수 없음")
+    void export_rejected() throws Exception {
+        mockMvc.perform(get("/admin/accounts/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/admin/accounts/export")
+                        .with(request -> { request.setRemoteAddr("203.0.113.7"); return request; }))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithAccount("member")
+    @DisplayName("관리자가 아니면 로컬에서도 내보낼 수 없음")
+    void export_not_admin() throws Exception {
+        mockMvc.perform(get("/admin/accounts/export"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("로그인하지 않으면 로그인 페이지로")
+    void export_anonymous() throws Exception {
+        mockMvc.perform(get("/admin/accounts/export"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    // @WithAccount 로 만든 관리자 계정은 빼고 비교
+    private static String[] withoutAdmin(String body) {
+        return Arrays.stream(body.split("\n"))
+                .filter(line -> !line.contains("admin@gmail.com"))
+                .toArray(String[]::new);
+    }
+}
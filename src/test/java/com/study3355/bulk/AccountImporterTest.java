@@ -0,0 +1,93 @@
+package com.study3355.bulk;
+
+import com.study3355.account.AccountRepository;
+import com.study3355.domain.Account;
+import com.study3355.tag.TagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AccountImporterTest {
+
+    @Autowired AccountImporter accountImporter;
+    @Autowired AccountRepository accountRepository;
+    @Autowired TagRepository tagRepository;
+    @Autowired PasswordEncoder passwordEncoder;
+
+    @TempDir Path tempDir;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("CSV, JSONL 대량 등록 - 태그 연결, 평문 비밀번호 해시, 다시 등록하면 모두 건너뜀")
+    void import_csv_and_jsonl() throws Exception {
+        Path csv = tempDir.resolve("members.csv");
+        Path jsonl = tempDir.resolve("members.jsonl");
+        ImportFixtureGenerator.write(csv, "c-", 3000);
+        ImportFixtureGenerator.write(jsonl, "j-", 1000);
+
+        ImportResult csvResult = accountImporter.importFile(csv);
+        ImportResult jsonlResult = accountImporter.importFile(jsonl);
+
+        assertEquals(3000, csvResult.getImported());
+        assertEquals(1000, jsonlResult.getImported());
+        assertEquals(0, csvResult.getFailed() + jsonlResult.getFailed());
+        assertEquals(4000, accountRepository.count());
+
+        // 100번째 행마다 평문 -> 해시해서 저장
+        Account hashed = accountRepository.findByEmail("c-member100@email.com");
+        assertTrue(passwordEncoder.matches("password100", hashed.getPassword()));
+        Account preHashed = accountRepository.findByEmail("j-member1@email.com");
+        assertTrue(passwordEncoder.matches("12345678", preHashed.getPassword()));
+        assertTrue(preHashed.isStudyCreatedByWeb());
+
+        List<String> titles = tagRepository.findTitlesByAccountId(hashed.getId());
+        assertEquals(2, titles.size());
+        assertTrue(titles.contains("태그100"));
+        assertTrue(titles.contains("tag-" + (100 * 7) % ImportFixtureGenerator.TAGS));
+
+        ImportResult again = accountImporter.importFile(csv);
+        assertEquals(0, again.getImported());
+        assertEquals(3000, again.getSkipped());
+    }
+
+    @Test
+    @DisplayName("bcrypt 해시가 아닌 {id} 형식은 평문으로 보고 해시해서 저장")
+    void hash_unless_bcrypt() {
+        String bcrypt = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678");
+        List<String> passwords = List.of(bcrypt, "{noop}12345678", "{bcrypt}12345678", "{sha256}abcdef", bcrypt + "x");
+
+        List<ImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < passwords.size(); i++) {
+            ImportRow row = new ImportRow();
+            row.setEmail("encoded" + i + "@email.com");
+            row.setNickname("encoded" + i);
+            row.setPassword(passwords.get(i));
+            rows.add(row);
+        }
+        assertEquals(passwords.size(), accountImporter.importRows(rows.iterator()).getImported());
+
+        assertEquals(bcrypt, accountRepository.findByEmail("encoded0@email.com").getPassword());
+        for (int i = 1; i < passwords.size(); i++) {
+            String stored = accountRepository.findByEmail("encoded" + i + "@email.com").getPassword();
+            assertTrue(stored.startsWith("{bcrypt}$2a$"), stored);
+            assertTrue(passwordEncoder.matches(passwords.get(i), stored), "입력한 문자열 그대로가 비밀번호");
+            assertFalse(passwordEncoder.matches("12345678", stored));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.study3355.bulk;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 대량 등록 확인용 파일 생성
+ * ./gradlew testClasses 후 java -cp ... com.study3355.bulk.ImportFixtureGenerator members.csv 500000
+ * 해시는 한 번만 만들어서 모든 행에 재사용하고, 100번째 행마다 평문 비밀번호를 넣어서 해시 경로도 같이 확인
+ */
+public class ImportFixtureGenerator {
+
+    static final int TAGS = 200;
+
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "members.csv");
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        write(path, "", rows);
+        System.out.println(path.toAbsolutePath() + " 에 " + rows + "행을 만들었습니다.");
+    }
+
+    // 확장자가 .csv 이면 CSV, 그 외는 JSONL
+    static void write(Path path, String prefix, int rows) throws IOException {
+        boolean csv = path.getFileName().toString().endsWith(".csv");
+        String encoded = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (csv) {
+                writer.write("email,nickname,password,emailVerified,tags");
+                writer.newLine();
+            }
+            for (int i = 0; i < rows; i++) {
+                String email = prefix + "member" + i + "@email.com";
+                String nickname = prefix + "member" + i;
+                String password = i % 100 == 0 ? "password" + i : encoded;
+                boolean verified = i % 2 == 0;
+                String first = "태그" + (i % TAGS);
+                String second = "tag-" + ((i * 7) % TAGS);
+
+                if (csv) {
+                    writer.write(email + "," + nickname + "," + password + "," + verified + "," + first + "|" + second);
+                } else {
+                    writer.write("{\"email\":\"" + email + "\",\"nickname\":\"" + nickname
+                            + "\",\"password\":\"" + password + "\",\"emailVerified\":" + verified
+                            + ",\"tags\":[\"" + first + "\",\"" + second + "\"]}");
+                }
+                writer.newLine();
+            }
+        }
+    }
+}
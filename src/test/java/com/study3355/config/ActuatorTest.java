@@ -0,0 +1,53 @@
+package com.study3355.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActuatorTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @Test
+    @DisplayName("로컬에서 Prometheus 형식으로 메트릭 수집")
+    void prometheus() throws Exception {
+        // 로그인 실패 -> 인증 메트릭, 요청 메트릭
+        mockMvc.perform(post("/login")
+                .param("username", "nobody")
+                .param("password", "wrong")
+                .with(csrf()));
+        mockMvc.perform(get("/sign-up"));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("security_authentication_total")))
+                .andExpect(content().string(containsString("hikaricp_connections")))
+                .andExpect(content().string(containsString("hibernate_")));
+    }
+
+    @Test
+    @DisplayName("다른 곳에서는 메트릭을 볼 수 없고, health 는 볼 수 있음")
+    void prometheus_from_outside() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")
+                        .with(request -> { request.setRemoteAddr("203.0.113.7"); return request; }))
+                .andExpect(result -> assertNotEquals(200, result.getResponse().getStatus()));
+
+        mockMvc.perform(get("/actuator/health")
+                        .with(request -> { request.setRemoteAddr("203.0.113.7"); return request; }))
+                .andExpect(status().isOk());
+    }
+}
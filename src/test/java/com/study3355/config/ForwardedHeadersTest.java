@@ -0,0 +1,39 @@
+package com.study3355.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MockMvc 는 Tomcat 을 거치지 않으므로 (RemoteIpValve 없음) 실제 서버를 띄워서 확인
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ForwardedHeadersTest {
+
+    @LocalServerPort int port;
+
+    // 로그인 페이지로 보내는 리다이렉트를 따라가지 않음
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("프록시(로컬)를 거쳐 들어온 외부 요청은 X-Forwarded-For 의 IP 로 판단해서 메트릭을 볼 수 없음")
+    void actuator_behind_proxy() throws Exception {
+        assertEquals(200, get("/actuator/prometheus", null).statusCode());
+        assertNotEquals(200, get("/actuator/prometheus", "203.0.113.7").statusCode());
+        assertEquals(200, get("/actuator/health", "203.0.113.7").statusCode());
+    }
+
+    private HttpResponse<String> get(String path, String forwardedFor) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
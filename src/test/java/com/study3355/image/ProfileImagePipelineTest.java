@@ -0,0 +1,107 @@
+package com.study3355.image;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileImagePipelineTest {
+
+    @TempDir Path storePath;
+
+    SimpleMeterRegistry meterRegistry;
+    ImageStore imageStore;
+    ProfileImagePipeline pipeline;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        imageStore = new ImageStore(storePath.toString());
+        pipeline = new ProfileImagePipeline(imageStore, meterRegistry, 2, 8);
+    }
+
+    @AfterEach
+    void afterEach() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("큰 PNG 를 크기별 JPEG 로 줄여서 저장 - 원본의 10% 미만")
+    void process_reduces_size() throws Exception {
+        byte[] png = randomPng(1600, 1600);
+
+        ProcessedImage image = pipeline.process(new ByteArrayInputStream(png));
+
+        assertEquals(png.length, image.getSourceBytes());
+        assertImageSize(image.getProfileImage(), ProfileImagePipeline.PROFILE_IMAGE_SIZE);
+        assertImageSize(image.getThumbnail(), ProfileImagePipeline.THUMBNAIL_SIZE);
+        assertTrue(image.getProfileImageBytes() + image.getThumbnailBytes() < png.length / 10);
+    }
+
+    @Test
+    @DisplayName("data URL 을 비동기로 처리 - 처리 시간 메트릭 기록")
+    void submit_records_metrics() throws Exception {
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(randomPng(800, 600));
+
+        int count = 8;
+        for (int i = 0; i < count; i++) {
+            pipeline.submit(dataUrl).get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(count, meterRegistry.get("image.pipeline.process").timer().count());
+        assertEquals(count, meterRegistry.get("image.pipeline.wait").timer().count());
+        assertEquals(0, meterRegistry.get("image.pipeline.rejected").counter().count());
+        assertEquals(0, meterRegistry.get("image.pipeline.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("이미지가 아닌 데이터는 처리하지 않음")
+    void process_rejects_non_image() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pipeline.process(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    private void assertImageSize(String url, int size) throws IOException {
+        String hash = url.substring(ImageStore.URL_PREFIX.length());
+        Path path = imageStore.find(hash).orElseThrow();
+        BufferedImage stored = ImageIO.read(Files.newInputStream(path));
+        assertEquals(size, stored.getWidth());
+        assertEquals(size, stored.getHeight());
+    }
+
+    // 압축이 잘 안되는 노이즈 이미지 (브라우저 cropper 가 보내는 PNG 와 비슷한 크기)
+    private static byte[] randomPng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt() | 0xFF000000);
+            }
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillOval(width / 4, height / 4, width / 2, height / 2);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,159 @@
+package com.study3355.mail;
+
+import com.study3355.domain.OutboxMail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 스케줄러가 끼어들지 않도록 기본 dispatcher 는 끄고, 테스트에서 직접 만들어서 실행
+@SpringBootTest(properties = "app.mail.dispatcher.enabled=false")
+class MailDispatcherTest {
+
+    @Autowired MailOutbox mailOutbox;
+    @Autowired OutboxMailRepository outboxMailRepository;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void afterEach() {
+        outboxMailRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("outbox 에 쌓인 메일을 배치 단위로 발송")
+    void dispatch_in_batches() {
+        enqueue(25, "user");
+        StubMailSender sender = new StubMailSender().latency(20);
+        MailDispatcher dispatcher = new MailDispatcher(outboxMailRepository, sender, transactionTemplate, new SimpleMeterRegistry(), 10, 3, 0, 300_000, 7);
+
+        dispatcher.dispatchPending();
+
+        assertEquals(List.of(10, 10, 5), sender.getBatchSizes());
+        assertEquals(25, sender.getSent().size());
+        assertTrue(outboxMailRepository.findAll().stream().allMatch(mail -> mail.getStatus() == OutboxMail.Status.SENT));
+    }
+
+    @Test
+    @DisplayName("실패한 메일만 재시도하고, 최대 횟수를 넘으면 DEAD")
+    void retry_and_dead_letter() {
+        enqueue(3, "user");
+        enqueue(1, "broken");
+        StubMailSender sender = new StubMailSender()
+                .failWhen(message -> message.getTo()[0].startsWith("broken"));
+        MailDispatcher dispatcher = new MailDispatcher(outboxMailRepository, sender, transactionTemplate, new SimpleMeterRegistry(), 10, 2, 0, 300_000, 7);
+
+        dispatcher.dispatchBatch();
+
+        OutboxMail broken = outboxMailRepository.findByRecipient("broken0@test.com").get(0);
+        assertEquals(OutboxMail.Status.PENDING, broken.getStatus());
+        assertEquals(1, broken.getAttempts());
+        assertEquals(3, sender.getSent().size());
+
+        dispatcher.dispatchBatch();
+
+        broken = outboxMailRepository.findByRecipient("broken0@test.com").get(0);
+        assertEquals(OutboxMail.Status.DEAD, broken.getStatus());
+        assertEquals(2, broken.getAttempts());
+        assertNotNull(broken.getLastError());
+        assertEquals(0, dispatcher.dispatchBatch()); // DEAD 는 더 이상 보내지 않음
+    }
+
+    @Test
+    @DisplayName("재시도 대기 시간이 지나기 전에는 다시 보내지 않음")
+    void backoff() {
+        enqueue(1, "broken");
+        StubMailSender sender = new StubMailSender().failWhen(message -> true);
+        MailDispatcher dispatcher = new MailDispatcher(outboxMailRepository, sender, transactionTemplate, new SimpleMeterRegistry(), 10, 5, 60_000, 300_000, 7);
+
+        assertEquals(1, dispatcher.dispatchBatch());
+        assertEquals(0, dispatcher.dispatchBatch());
+    }
+
+    @Test
+    @DisplayName("서버 두 대가 동시에 발송해도 메일은 한 번씩만 나감 (선점)")
+    void claim_once() throws Exception {
+        enqueue(100, "user");
+        StubMailSender sender = new StubMailSender().latency(10);
+        MailDispatcher first = new MailDispatcher(outboxMailRepository, sender, transactionTemplate, new SimpleMeterRegistry(), 10, 3, 0, 300_000, 7);
+        MailDispatcher second = new MailDispatcher(outboxMailRepository, sender, transactionTemplate, new SimpleMeterRegistry(), 10, 3, 0, 300_000, 7);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (Future<Void> future : executor.invokeAll(List.of(dispatchUntilEmpty(first), dispatchUntilEmpty(second)))) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Set<String> recipients = sender.getSent().stream().map(message -> message.getTo()[0]).collect(Collectors.toSet());
+        assertEquals(100, sender.getSent().size());
+        assertEquals(100, recipients.size());
+        assertTrue(outboxMailRepository.findAll().stream().allMatch(mail -> mail.getStatus() == OutboxMail.Status.SENT));
+    }
+
+    @Test
+    @DisplayName("선점한 채로 오래 남은 메일은 다시 발송 대기로, 보관 기간이 지난 발송 완료 메일은 삭제")
+    void release_and_purge() {
+        enqueue(2, "user");
+        MailDispatcher dispatcher = new MailDispatcher(outboxMailRepository, new StubMailSender(), transactionTemplate, new SimpleMeterRegistry(), 10, 3, 0, 300_000, 7);
+
+        OutboxMail stuck = outboxMailRepository.findByRecipient("user0@test.com").get(0);
+        stuck.setStatus(OutboxMail.Status.SENDING);
+        stuck.setClaimedBy("crashed");
+        stuck.setClaimedAt(LocalDateTime.now().minusHours(1));
+        outboxMailRepository.save(stuck);
+        OutboxMail old = outboxMailRepository.findByRecipient("user1@test.com").get(0);
+        old.sent();
+        old.setSentAt(LocalDateTime.now().minusDays(8));
+        outboxMailRepository.save(old);
+
+        dispatcher.maintain();
+
+        assertEquals(OutboxMail.Status.PENDING, outboxMailRepository.findByRecipient("user0@test.com").get(0).getStatus());
+        assertTrue(outboxMailRepository.findByRecipient("user1@test.com").isEmpty());
+        assertEquals(1, dispatcher.dispatchBatch());
+
+        dispatcher.maintain(); // 방금 보낸 메일은 보관 기간 안이므로 남음
+        assertEquals(OutboxMail.Status.SENT, outboxMailRepository.findByRecipient("user0@test.com").get(0).getStatus());
+    }
+
+    // 한쪽이 선점에 밀려서 일찍 끝날 수 있으므로 발송 대기 메일이 없을 때까지 반복
+    private Callable<Void> dispatchUntilEmpty(MailDispatcher dispatcher) {
+        return () -> {
+            while (!outboxMailRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    OutboxMail.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, 1)).isEmpty()) {
+                dispatcher.dispatchPending();
+            }
+            return null;
+        };
+    }
+
+    private void enqueue(int count, String prefix) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                SimpleMailMessage message = new SimpleMailMessage();
+                message.setTo(prefix + i + "@test.com");
+                message.setSubject("subject");
+                message.setText("text");
+                mailOutbox.enqueue(message);
+            }
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.study3355.mail;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+import javax.mail.internet.MimeMessage;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// 테스트용 메일 sender, 발송 지연과 특정 메일의 실패를 흉내낼 수 있음
+public class StubMailSender implements JavaMailSender {
+
+    private final List<SimpleMailMessage> sent = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile long latencyMillis;
+    private volatile Predicate<SimpleMailMessage> failWhen = message -> false;
+
+    public StubMailSender latency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    public StubMailSender failWhen(Predicate<SimpleMailMessage> failWhen) {
+        this.failWhen = failWhen;
+        return this;
+    }
+
+    public List<SimpleMailMessage> getSent() {
+        return sent;
+    }
+
+    public List<Integer> getBatchSizes() {
+        return batchSizes;
+    }
+
+    @Override
+    public void send(SimpleMailMessage simpleMessage) throws MailException {
+        send(new SimpleMailMessage[]{simpleMessage});
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        batchSizes.add(simpleMessages.length);
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        for (SimpleMailMessage message : simpleMessages) {
+            if (failWhen.test(message)) {
+                failed.put(message, new MailSendException("injected failure"));
+            } else {
+                sent.add(message);
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new MailSendException(failed);
+        }
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessage mimeMessage) throws MailException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessagePreparator mimeMessagePreparator) throws MailException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessagePreparator... mimeMessagePreparators) throws MailException {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -1,8 +1,12 @@
 package com.study3355.main;
 
+import com.study3355.WithAccount;
 import com.study3355.account.AccountRepository;
 import com.study3355.account.AccountService;
+import com.study3355.account.BoundedPasswordEncoder;
 import com.study3355.account.SignUpForm;
+import com.study3355.domain.Account;
+import com.study3355.tag.TagService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,13 +14,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,6 +43,8 @@ public class MainControllerTest {
     @Autowired MockMvc mockMvc;
     @Autowired AccountService accountService;
     @Autowired AccountRepository accountRepository;
+    @Autowired BoundedPasswordEncoder passwordEncoder;
+    @Autowired TagService tagService;
 
     @BeforeEach
     void beforeEach() {
@@ -91,6 +107,77 @@ public class MainControllerTest {
                 .andExpect(unauthenticated());
     }
 
+    @Test
+    @DisplayName("다른 bcrypt cost 로 저장된 비밀번호는 로그인할 때 다시 해시")
+    void login_rehash_password() throws Exception {
+        String legacy = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("12345678");
+        accountRepository.save(Account.builder().email("legacy@test.com").nickname("legacy").password(legacy).build());
+
+        mockMvc.perform(post("/login")
+                        .param("username", "legacy")
+                        .param("password", "12345678")
+                        .with(csrf()))
+                .andExpect(redirectedUrl("/"))
+                .andExpect(authenticated().withUsername("legacy"));
+
+        String rehashed = accountRepository.findByNickname("legacy").getPassword();
+        assertNotEquals(legacy, rehashed);
+        assertFalse(passwordEncoder.upgradeEncoding(rehashed));
+        assertTrue(passwordEncoder.matches("12345678", rehashed));
+    }
+
+    @Test
+    @DisplayName("같은 아이디로 로그인을 계속 시도하면 429")
+    void login_rate_limited() throws Exception {
+        // 다른 테스트와 IP 제한을 나눠 쓰지 않도록 별도의 IP 에서 요청
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(post("/login")
+                            .param("username", "brute")
+                            .param("password", "wrong" + i)
+                            .with(csrf())
+                            .with(request -> { request.setRemoteAddr("10.0.0.14"); return request; }))
+                    .andExpect(redirectedUrl("/login?error"));
+        }
+
+        mockMvc.perform(post("/login")
+                        .param("username", "BRUTE")
+                        .param("password", "wrong")
+                        .with(csrf())
+                        .with(request -> { request.setRemoteAddr("10.0.0.14"); return request; }))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(unauthenticated());
+    }
+
+    @Test
+    @DisplayName("로그인 실패만 IP 별로 세므로, 다른 곳에서 계속 틀려도 본인은 로그인할 수 있음")
+    void login_rate_limit_counts_failures_per_address() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(post("/login")
+                            .param("username", "james")
+                            .param("password", "wrong" + i)
+                            .with(csrf())
+                            .with(request -> { request.setRemoteAddr("10.0.0.21"); return request; }))
+                    .andExpect(redirectedUrl("/login?error"));
+        }
+        mockMvc.perform(post("/login")
+                        .param("username", "james")
+                        .param("password", "12345678")
+                        .with(csrf())
+                        .with(request -> { request.setRemoteAddr("10.0.0.21"); return request; }))
+                .andExpect(status().isTooManyRequests());
+
+        // 성공한 로그인은 제한에 넣지 않음
+        for (int i = 0; i < 11; i++) {
+            mockMvc.perform(post("/login")
+                            .param("username", "james")
+                            .param("password", "12345678")
+                            .with(csrf())
+                            .with(request -> { request.setRemoteAddr("10.0.0.22"); return request; }))
+                    .andExpect(authenticated().withUsername("james"));
+        }
+    }
+
     @WithMockUser
     @Test
     @DisplayName("로그아웃")
@@ -106,4 +193,19 @@ public class MainControllerTest {
         //then
 
     }
+
+    @WithAccount("alice")
+    @Test
+    @DisplayName("메인 화면에 관심 주제가 비슷한 회원 표시")
+    void home_similar_members() throws Exception {
+        Account alice = accountRepository.findByNickname("alice");
+        Account james = accountRepository.findByNickname("james");
+        tagService.updateAccountTags(alice.getId(), List.of("home-a", "home-b", "home-c"), List.of());
+        tagService.updateAccountTags(james.getId(), List.of("home-a", "home-b"), List.of());
+
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("similarMembers", hasSize(1)))
+                .andExpect(content().string(containsString("/profile/james")));
+    }
 }
\ No newline at end of file
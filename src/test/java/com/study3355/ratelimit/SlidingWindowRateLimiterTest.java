@@ -0,0 +1,115 @@
+package com.study3355.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(60_000);
+
+    @Test
+    @DisplayName("윈도우 안에서는 limit 까지만 허용, 직전 윈도우는 겹친 비율만큼 반영")
+    void sliding_window() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter("test", 4, Duration.ofMinutes(1), 1000, now::get);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        long retryAfter = limiter.tryAcquire("a");
+        assertTrue(retryAfter > 60_000 && retryAfter <= 75_001, String.valueOf(retryAfter));
+        assertEquals(0, limiter.tryAcquire("b"), "다른 키는 따로 셈");
+
+        // 다음 윈도우 시작 직후: 직전 윈도우 4건이 그대로 남아 있음
+        now.set(120_000);
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        // 직전 윈도우가 절반만 겹치면 추정치 2 -> 2건 더 허용
+        now.set(150_000);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    @DisplayName("제한에 걸린 뒤 Retry-After 만큼 기다리면 다시 허용")
+    void retry_after_is_enough() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter("test", 5, Duration.ofSeconds(10), 1000, now::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        long retryAfter = limiter.tryAcquire("a");
+        now.addAndGet(retryAfter);
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    @DisplayName("check 는 세지 않고, record 한 만큼만 제한")
+    void check_and_record() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter("test", 3, Duration.ofMinutes(1), 1000, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.check("a")); // 성공한 요청은 기록하지 않음
+        }
+        assertEquals(0, limiter.size());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.check("a"));
+            limiter.record("a"); // 실패한 요청
+        }
+        long retryAfter = limiter.check("a");
+        assertTrue(retryAfter > 0);
+        assertEquals(0, limiter.check("b"));
+
+        now.addAndGet(retryAfter);
+        assertEquals(0, limiter.check("a"));
+    }
+
+    @Test
+    @DisplayName("오래 안 쓴 키는 지우고, 키 개수에는 상한이 있음")
+    void bounded_memory() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter("test", 1, Duration.ofSeconds(1), 64 * 10, now::get);
+
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+        assertTrue(limiter.size() <= 64 * 10, String.valueOf(limiter.size()));
+
+        now.addAndGet(10_000);
+        for (int i = 0; i < 64 * 10; i++) {
+            limiter.tryAcquire("other-" + i);
+        }
+        assertTrue(limiter.size() <= 64 * 10);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 같은 키로 동시에 요청해도 limit 만큼만 허용")
+    void concurrent_same_key() throws Exception {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter("test", 100, Duration.ofHours(1), 1000);
+        AtomicInteger allowed = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (limiter.tryAcquire("shared") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,120 @@
+package com.study3355.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study3355.WithAccount;
+import com.study3355.account.AccountRepository;
+import com.study3355.domain.Account;
+import com.study3355.tag.MemberTagIndex;
+import com.study3355.tag.TagService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberSearchControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired TagService tagService;
+    @Autowired MemberTagIndex memberTagIndex;
+    @Autowired ObjectMapper objectMapper;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("태그로 회원 찾기 - AND/OR, 페이지, 태그 변경 즉시 반영")
+    void search_members() throws Exception {
+        Long first = createAccount("search1", List.of("search-a", "search-b"));
+        Long second = createAccount("search2", List.of("search-a"));
+        createAccount("search3", List.of("search-b", "search-c"));
+
+        assertEquals(List.of("search1"), search("search-a,search-b", "and"));
+        assertEquals(List.of("search1", "search2", "search3"), search("search-a,search-b", "or"));
+        assertEquals(List.of("search3"), search("search-b,search-c", "and"));
+
+        // 없는 태그: AND 는 결과 없음, OR 은 나머지 태그로
+        assertEquals(Collections.emptyList(), search("search-a,search-none", "and"));
+        assertEquals(List.of("search1", "search2"), search("search-a,search-none", "or"));
+
+        // 페이지: 2명씩
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> nicknames = pages("search-a,search-b", "or", 2, pageSizes);
+        assertEquals(List.of("search1", "search2", "search3"), nicknames);
+        assertEquals(List.of(2, 1), pageSizes);
+
+        tagService.updateAccountTags(first, List.of(), List.of("search-a"));
+        tagService.updateAccountTags(second, List.of("search-b"), List.of());
+        assertEquals(List.of("search2"), search("search-a,search-b", "and"));
+
+        // 다시 만들어도 같은 결과
+        memberTagIndex.rebuild();
+        assertEquals(List.of("search2"), search("search-a,search-b", "and"));
+        assertEquals(List.of("search1", "search2", "search3"), search("search-b", "and"));
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("태그는 10개까지, op 는 and/or")
+    void search_members_bad_request() throws Exception {
+        mockMvc.perform(get("/search/members").param("tags", "1,2,3,4,5,6,7,8,9,10,11"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/search/members").param("tags", "search-a").param("op", "xor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long createAccount(String nickname, List<String> tags) {
+        Account account = accountRepository.save(Account.builder()
+                .email(nickname + "@email.com")
+                .nickname(nickname)
+                .password("{noop}12345678")
+                .build());
+        tagService.updateAccountTags(account.getId(), tags, List.of());
+        return account.getId();
+    }
+
+    private List<String> search(String tags, String op) throws Exception {
+        return pages(tags, op, 20, new ArrayList<>());
+    }
+
+    private List<String> pages(String tags, String op, int size, List<Integer> pageSizes) throws Exception {
+        List<String> nicknames = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/search/members")
+                    .param("tags", tags)
+                    .param("op", op)
+                    .param("size", String.valueOf(size));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(account -> nicknames.add(account.get("nickname").asText()));
+            pageSizes.add(page.get("content").size());
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+        return nicknames;
+    }
+}
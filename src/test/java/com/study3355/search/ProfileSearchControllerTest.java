@@ -0,0 +1,131 @@
+package com.study3355.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study3355.WithAccount;
+import com.study3355.account.AccountRepository;
+import com.study3355.account.AccountService;
+import com.study3355.domain.Account;
+import com.study3355.settings.form.Profile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProfileSearchControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired AccountService accountService;
+    @Autowired ProfileIndexer profileIndexer;
+    @Autowired ObjectMapper objectMapper;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("프로필 검색 - 한글/영어, 여러 단어는 모두 포함, 페이지, 수정 후 반영")
+    void search_profiles() throws Exception {
+        createAccount("profile1", "스터디를 찾는 백엔드 개발자", "백엔드 개발자", "서울");
+        createAccount("profile2", "Spring Boot 공부 중", "프론트엔드 개발자", "부산");
+        createAccount("profile3", "Backend engineer", "데이터 분석가", "서울 강남");
+        profileIndexer.await();
+
+        assertEquals(Set.of("profile1", "profile2"), new HashSet<>(search("개발자", 20, new ArrayList<>())));
+        assertEquals(List.of("profile1"), search("서울 백엔드", 20, new ArrayList<>()));
+        assertEquals(Set.of("profile1", "profile3"), new HashSet<>(search("서울", 20, new ArrayList<>())));
+        assertEquals(List.of("profile2"), search("spring", 20, new ArrayList<>()));
+        assertEquals(List.of("profile3"), search("BACKEND", 20, new ArrayList<>()));
+        assertEquals(Collections.emptyList(), search("디자이너", 20, new ArrayList<>()));
+
+        // 직업이 일치하는 쪽이 소개에만 있는 쪽보다 앞에
+        createAccount("profile4", "개발자 모임에 관심 있는 디자이너", "디자이너", "대전");
+        profileIndexer.await();
+        List<String> ranked = search("개발자", 20, new ArrayList<>());
+        assertEquals("profile4", ranked.get(ranked.size() - 1));
+
+        // 페이지: 1명씩, 겹치거나 빠지는 회원 없이
+        List<Integer> pageSizes = new ArrayList<>();
+        assertEquals(ranked, search("개발자", 1, pageSizes));
+        assertEquals(List.of(1, 1, 1), pageSizes);
+
+        Profile profile = new Profile();
+        profile.setOccupation("디자이너");
+        accountService.updateProfile(accountRepository.findByNickname("profile1"), profile);
+        profileIndexer.await();
+        assertEquals(Set.of("profile2", "profile4"), new HashSet<>(search("개발자", 20, new ArrayList<>())));
+        assertEquals(Set.of("profile1", "profile4"), new HashSet<>(search("디자이너", 20, new ArrayList<>())));
+
+        // 다시 만들어도 같은 결과
+        profileIndexer.reindexAll();
+        profileIndexer.await();
+        assertEquals(Set.of("profile2", "profile4"), new HashSet<>(search("개발자", 20, new ArrayList<>())));
+        assertEquals(List.of("profile3"), search("서울", 20, new ArrayList<>()));
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("검색어는 100자까지, 잘못된 cursor 는 400")
+    void search_profiles_bad_request() throws Exception {
+        mockMvc.perform(get("/search/profiles").param("q", "가".repeat(101)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/search/profiles").param("q", "개발자").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/search/profiles").param("q", " "))
+                .andExpect(status().isOk());
+    }
+
+    private void createAccount(String nickname, String bio, String occupation, String location) {
+        Account account = accountRepository.save(Account.builder()
+                .email(nickname + "@email.com")
+                .nickname(nickname)
+                .password("{noop}12345678")
+                .build());
+        Profile profile = new Profile();
+        profile.setBio(bio);
+        profile.setOccupation(occupation);
+        profile.setLocation(location);
+        accountService.updateProfile(account, profile);
+    }
+
+    private List<String> search(String q, int size, List<Integer> pageSizes) throws Exception {
+        List<String> nicknames = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/search/profiles")
+                    .param("q", q)
+                    .param("size", String.valueOf(size));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(account -> nicknames.add(account.get("nickname").asText()));
+            pageSizes.add(page.get("content").size());
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+        return nicknames;
+    }
+}
@@ -3,17 +3,30 @@ package com.study3355.settings;
 import com.study3355.WithAccount;
 import com.study3355.account.AccountRepository;
 import com.study3355.domain.Account;
+import com.study3355.image.ImageStore;
+import com.study3355.tag.TagRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,6 +38,7 @@ class SettingsControllerTest {
     @Autowired MockMvc mockMvc;
     @Autowired AccountRepository accountRepository;
     @Autowired PasswordEncoder passwordEncoder;
+    @Autowired TagRepository tagRepository;
 
     @AfterEach
     void afterEach() {
@@ -72,6 +86,39 @@ class SettingsControllerTest {
         assertNull(james.getBio());
     }
 
+    @Test
+    @DisplayName("프로필 이미지 수정 - 크기별로 처리해서 저장하고 URL 로 서빙")
+    @WithAccount("james")
+    void updateProfile_image() throws Exception {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(png.toByteArray());
+
+        mockMvc.perform(post(SettingsController.SETTINGS_PROFILE_URL)
+                        .param("profileImage", dataUrl)
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        // 이미지는 작업 스레드에서 처리되므로 URL 이 저장될 때까지 기다림
+        Account james = accountRepository.findByNickname("james");
+        for (int i = 0; i < 50 && james.getProfileImage() == null; i++) {
+            Thread.sleep(100);
+            james = accountRepository.findByNickname("james");
+        }
+        assertTrue(james.getProfileImage().startsWith(ImageStore.URL_PREFIX));
+        assertTrue(james.getProfileImageThumbnail().startsWith(ImageStore.URL_PREFIX));
+
+        String etag = mockMvc.perform(get(james.getProfileImage()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(james.getProfileImage()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @DisplayName("프로필 수정 폼")
     //@WithUserDetails(value = "james",setupBefore = TestExecutionEvent.TEST_EXECUTION) // beforeEach보다 먼저 실행됨.,심지어 설정을해도 before 보다 먼저 실행
@@ -85,6 +132,46 @@ class SettingsControllerTest {
                 .andExpect(model().attributeExists("profile"));
     }
 
+    @WithAccount("james")
+    @Test
+    @DisplayName("관심 주제 여러 개를 한 번에 추가/삭제")
+    void updateTagsBatch() throws Exception {
+        mockMvc.perform(post(SettingsController.SETTINGS_TAGS_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"add\": [\"JPA\", \"Redis\", \"Kafka\"], \"remove\": []}")
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        Account james = accountRepository.findByNickname("james");
+        assertEquals(List.of("JPA", "Kafka", "Redis"), tagRepository.findTitlesByAccountId(james.getId()));
+
+        // 이미 있는 태그를 다시 추가하거나, 추가했다가 바로 지운 태그는 무시
+        mockMvc.perform(post(SettingsController.SETTINGS_TAGS_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"add\": [\"JPA\", \"Docker\", \"Go\"], \"remove\": [\"Redis\", \"Go\"]}")
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("Docker", "JPA", "Kafka"), tagRepository.findTitlesByAccountId(james.getId()));
+        assertTrue(tagRepository.findByTitle("Redis").isPresent()); // 태그 자체는 남아있음
+        assertTrue(tagRepository.findByTitle("Go").isEmpty());
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("관심 주제 추가 후 자동완성 추천")
+    void suggestTags() throws Exception {
+        mockMvc.perform(post(SettingsController.SETTINGS_TAGS_URL + "/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tagTitle\": \"Spring Boot\"}")
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(SettingsController.SETTINGS_TAGS_URL + "/suggest").param("q", "spr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Spring Boot"));
+    }
+
     @WithAccount("james")
     @Test
     @DisplayName("패스워드 수정 폼")
@@ -99,10 +186,15 @@ class SettingsControllerTest {
     @Test
     @DisplayName("패스워드 수정 - 입력값 정상")
     void updatePassword_success() throws Exception {
-        mockMvc.perform(post(SettingsController.SETTINGS_PASSWORD_URL)
+        // 해시는 다른 스레드에서 하므로 비동기 처리가 끝난 뒤의 응답을 확인
+        MvcResult result = mockMvc.perform(post(SettingsController.SETTINGS_PASSWORD_URL)
                 .param("newPassword", "123456789")
                 .param("newPasswordConfirm","123456789")
                 .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl(SettingsController.SETTINGS_PASSWORD_URL))
                 .andExpect(flash().attributeExists("message"));
@@ -115,10 +207,14 @@ class SettingsControllerTest {
     @Test
     @DisplayName("패스워드 수정 - 입력값 에러 - new 패스워드 불일치")
     void updatePassword_fail() throws Exception {
-        mockMvc.perform(post(SettingsController.SETTINGS_PASSWORD_URL)
+        MvcResult result = mockMvc.perform(post(SettingsController.SETTINGS_PASSWORD_URL)
                 .param("newPassword","123456789")
                 .param("newPasswordConfirm", "12345678")
                 .with(csrf()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(view().name(SettingsController.SETTINGS_PASSWORD_VIEW_NAME))
                 .andExpect(model().hasErrors())
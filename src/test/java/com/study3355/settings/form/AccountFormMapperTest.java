@@ -0,0 +1,81 @@
+package com.study3355.settings.form;
+
+import com.study3355.domain.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountFormMapperTest {
+
+    @Test
+    @DisplayName("Account -> 폼: 폼의 모든 필드를 옮김")
+    void toForm() throws Exception {
+        Account account = filled(new Account(), true);
+
+        assertSameFields(AccountFormMapper.toProfile(account), account);
+        assertSameFields(AccountFormMapper.toNotifications(account), account);
+        assertSameFields(AccountFormMapper.toNicknameForm(account), account);
+    }
+
+    @Test
+    @DisplayName("폼 -> Account: 폼의 모든 필드를 옮기고, 프로필 이미지는 그대로 둠")
+    void toAccount() throws Exception {
+        assertCopied(new Profile(), AccountFormMapper::copy, "profileImage");
+        assertCopied(new Notifications(), AccountFormMapper::copy);
+    }
+
+    private <T> void assertCopied(T form, BiConsumer<T, Account> copy, String... skipped) throws Exception {
+        filled(form, true);
+        Account account = filled(new Account(), false);
+        String profileImage = account.getProfileImage();
+
+        copy.accept(form, account);
+
+        for (Field field : form.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            if (Arrays.asList(skipped).contains(field.getName())) {
+                assertEquals(profileImage, account.getProfileImage());
+                continue;
+            }
+            assertEquals(value(form, field.getName()), value(account, field.getName()), field.getName());
+        }
+    }
+
+    private void assertSameFields(Object form, Account account) throws Exception {
+        for (Field field : form.getClass().getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                assertEquals(value(account, field.getName()), value(form, field.getName()), field.getName());
+            }
+        }
+    }
+
+    // String 필드는 "필드이름-구분값", boolean 필드는 flag 로 채움
+    private static <T> T filled(T target, boolean flag) throws Exception {
+        for (Field field : target.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            if (field.getType() == String.class) {
+                field.set(target, field.getName() + "-" + flag);
+            } else if (field.getType() == boolean.class) {
+                field.setBoolean(target, flag);
+            }
+        }
+        return target;
+    }
+
+    private static Object value(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+}
@@ -0,0 +1,64 @@
+package com.study3355.tag;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarMemberIndexTest {
+
+    private final SimilarMemberIndex index = new SimilarMemberIndex(null);
+
+    @Test
+    @DisplayName("태그가 많이 겹치는 회원부터, 겹치지 않는 회원은 제외")
+    void similar() {
+        index.load(1, new int[]{1, 2, 3, 4});
+        index.load(2, new int[]{4, 3, 2, 1});
+        index.load(3, new int[]{1, 2, 3, 5});
+        index.load(4, new int[]{7, 8, 9});
+        index.compact();
+
+        List<SimilarMemberIndex.Match> matches = index.similar(1L, 5);
+        assertEquals(2L, matches.get(0).getAccountId());
+        assertEquals(1.0, matches.get(0).getSimilarity());
+        assertTrue(matches.stream().noneMatch(match -> match.getAccountId() == 4L || match.getAccountId() == 1L));
+        assertTrue(index.similar(99L, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("태그를 바꾸면 다시 만들기 전에도 반영")
+    void update() {
+        index.load(1, new int[]{1, 2, 3});
+        index.load(2, new int[]{7, 8, 9});
+        index.compact();
+        assertTrue(index.similar(1L, 5).isEmpty());
+
+        index.update(2L, List.of(1L, 2L, 3L), List.of(7L, 8L, 9L));
+        index.update(3L, List.of(1L, 2L, 3L), List.of());
+        assertEquals(List.of(2L, 3L), accountIds(index.similar(1L, 5)));
+
+        // 태그를 모두 지운 회원은 더 이상 나오지 않음
+        index.update(3L, List.of(), List.of(1L, 2L, 3L));
+        assertEquals(List.of(2L), accountIds(index.similar(1L, 5)));
+
+        index.compact();
+        assertEquals(List.of(2L), accountIds(index.similar(1L, 5)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Jaccard 유사도")
+    void jaccard() {
+        assertEquals(1.0, MinHash.jaccard(new int[]{1, 2}, new int[]{1, 2}));
+        assertEquals(0.5, MinHash.jaccard(new int[]{1, 2, 3}, new int[]{2, 3, 4}));
+        assertEquals(0.0, MinHash.jaccard(new int[]{1}, new int[]{2}));
+        assertEquals(0.0, MinHash.jaccard(new int[]{}, new int[]{}));
+    }
+
+    private static List<Long> accountIds(List<SimilarMemberIndex.Match> matches) {
+        return matches.stream().map(SimilarMemberIndex.Match::getAccountId).collect(Collectors.toList());
+    }
+}
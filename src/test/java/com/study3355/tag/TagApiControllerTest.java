@@ -0,0 +1,98 @@
+package com.study3355.tag;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study3355.WithAccount;
+import com.study3355.account.AccountRepository;
+import com.study3355.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TagApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TagResolver tagResolver;
+    @Autowired TagService tagService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired ObjectMapper objectMapper;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("cursor 를 따라가면 id 순으로 모든 태그를 한 번씩")
+    void tags_keyset() throws Exception {
+        tagResolver.resolve(List.of("api-tag-1", "api-tag-2", "api-tag-3"));
+
+        List<Long> ids = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/tags").param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            JsonNode page = objectMapper.readTree(body);
+            assertTrue(page.get("content").size() <= 2);
+            page.get("content").forEach(tag -> {
+                ids.add(tag.get("id").asLong());
+                titles.add(tag.get("title").asText());
+            });
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+
+        assertTrue(titles.containsAll(List.of("api-tag-1", "api-tag-2", "api-tag-3")));
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+    }
+
+    @WithAccount("james")
+    @Test
+    @DisplayName("인기 태그는 회원 수가 많은 순으로")
+    void popular_tags() throws Exception {
+        Account james = accountRepository.findByNickname("james");
+        Account other = accountRepository.save(Account.builder()
+                .email("popular@email.com")
+                .nickname("popular")
+                .password("{noop}12345678")
+                .build());
+        tagService.updateAccountTags(james.getId(), List.of("api-popular-1", "api-popular-2"), List.of());
+        tagService.updateAccountTags(other.getId(), List.of("api-popular-2"), List.of());
+
+        String body = mockMvc.perform(get("/tags/popular").param("size", "50"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> titles = new ArrayList<>();
+        objectMapper.readTree(body).forEach(tag -> {
+            String title = tag.get("title").asText();
+            if (title.startsWith("api-popular-")) {
+                titles.add(title + "=" + tag.get("memberCount").asLong());
+            }
+        });
+        assertEquals(List.of("api-popular-2=2", "api-popular-1=1"), titles);
+    }
+}
@@ -0,0 +1,142 @@
+package com.study3355.tag;
+
+import com.study3355.account.AccountRepository;
+import com.study3355.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TagPopularityTest {
+
+    @Autowired TagPopularity tagPopularity;
+    @Autowired TagService tagService;
+    @Autowired TagRepository tagRepository;
+    @Autowired AccountRepository accountRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired DataSource dataSource;
+
+    @BeforeEach
+    void beforeEach() {
+        tagPopularity.reconcile(); // 다른 테스트에서 지운 회원의 태그
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("태그를 추가/삭제하면 회원 수와 상위 태그가 바로 바뀌고, 주기적으로 tag_stats 에 반영")
+    void count_top_flush() {
+        List<Long> accounts = createAccounts(3);
+        tagService.updateAccountTags(accounts.get(0), List.of("pop-a", "pop-b", "pop-c"), List.of());
+        tagService.updateAccountTags(accounts.get(1), List.of("pop-a", "pop-b"), List.of());
+        tagService.updateAccountTags(accounts.get(2), List.of("pop-a"), List.of());
+
+        Long a = id("pop-a");
+        Long b = id("pop-b");
+        Long c = id("pop-c");
+        assertEquals(3, tagPopularity.count(a));
+        assertEquals(2, tagPopularity.count(b));
+        assertEquals(1, tagPopularity.count(c));
+        assertEquals(List.of(a, b, c), topIds());
+
+        tagService.updateAccountTags(accounts.get(0), List.of(), List.of("pop-a"));
+        tagService.updateAccountTags(accounts.get(1), List.of("pop-c"), List.of("pop-a"));
+        tagService.updateAccountTags(accounts.get(2), List.of("pop-c"), List.of());
+        assertEquals(1, tagPopularity.count(a));
+        assertEquals(List.of(c, b, a), topIds());
+
+        tagPopularity.flush();
+        assertEquals(1, stored(a));
+        assertEquals(2, stored(b));
+        assertEquals(3, stored(c));
+        assertEquals(List.of(c, b, a), topIds());
+    }
+
+    @Test
+    @DisplayName("기동할 때(reconcile) account_tags 를 세어서 어긋난 값을 바로잡음")
+    void reconcile() {
+        List<Long> accounts = createAccounts(2);
+        tagService.updateAccountTags(accounts.get(0), List.of("pop-x", "pop-y"), List.of());
+        tagService.updateAccountTags(accounts.get(1), List.of("pop-x"), List.of());
+        tagPopularity.flush();
+
+        Long x = id("pop-x");
+        Long y = id("pop-y");
+        // 반영 전에 서버가 죽은 경우, 다른 경로로 account_tags 가 바뀐 경우
+        jdbcTemplate.update("update tag_stats set member_count = 100 where tag_id = ?", x);
+        jdbcTemplate.update("delete from account_tags where account_id = ? and tags_id = ?", accounts.get(0), y);
+
+        tagPopularity.reconcile();
+        assertEquals(2, tagPopularity.count(x));
+        assertEquals(0, tagPopularity.count(y));
+        assertEquals(2, stored(x));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from tag_stats where tag_id = ?", Integer.class, y));
+        assertFalse(topIds().contains(y));
+    }
+
+    @Test
+    @DisplayName("반영하지 못한 증가분이 남아있을 때 보정해도 두 번 세지 않음")
+    void reconcile_with_unflushed() {
+        Long account = createAccounts(1).get(0);
+        tagService.updateAccountTags(account, List.of("pop-z"), List.of());
+        Long z = id("pop-z");
+
+        // tag_stats 에 반영이 계속 실패하는 서버 -> 커밋된 증가분이 pending 에 남아있는 채로 account_tags 를 셈
+        TagPopularity failing = new TagPopularity(new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (sql.contains("member_count + ?")) {
+                    throw new IllegalStateException("tag_stats 반영 실패");
+                }
+                return super.update(sql, args);
+            }
+        }, tagRepository);
+        failing.update(List.of(z), List.of());
+
+        failing.reconcile();
+        assertEquals(1, failing.count(z));
+    }
+
+    private List<Long> createAccounts(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(accountRepository.save(Account.builder()
+                    .email("popular" + i + "@email.com")
+                    .nickname("popular" + i)
+                    .password("{noop}12345678")
+                    .build()).getId());
+        }
+        return ids;
+    }
+
+    private Long id(String title) {
+        return tagRepository.findByTitle(title).orElseThrow().getId();
+    }
+
+    private long stored(Long tagId) {
+        return jdbcTemplate.queryForObject("select member_count from tag_stats where tag_id = ?", Long.class, tagId);
+    }
+
+    // 다른 테스트에서 만든 태그와 섞이지 않도록 이 테스트의 태그만
+    private List<Long> topIds() {
+        List<String> titles = List.of("pop-a", "pop-b", "pop-c", "pop-x", "pop-y");
+        return tagPopularity.popular(TagPopularity.CACHED_TOP).stream()
+                .filter(tag -> titles.contains(tag.getTitle()))
+                .map(PopularTag::getId)
+                .collect(Collectors.toList());
+    }
+}
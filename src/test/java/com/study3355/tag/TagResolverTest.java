@@ -0,0 +1,206 @@
+package com.study3355.tag;
+
+import com.study3355.account.AccountRepository;
+import com.study3355.domain.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TagResolverTest {
+
+    private static final int ADDERS = 64;
+
+    @Autowired TagService tagService;
+    @Autowired TagResolver tagResolver;
+    @Autowired TagRepository tagRepository;
+    @Autowired TagSuggestIndex tagSuggestIndex;
+    @Autowired TagPopularity tagPopularity;
+    @Autowired MemberTagIndex memberTagIndex;
+    @Autowired AccountRepository accountRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("64명이 동시에 같은 새 태그를 추가해도 실패 없이 태그는 하나만 생성")
+    void concurrent_adders() throws Exception {
+        List<Long> accountIds = createAccounts(ADDERS);
+
+        // 서버 두 대를 흉내냄: 캐시와 락을 따로 가진 TagResolver 를 하나 더 만들어서 절반씩 나눠서 추가
+        // -> 같은 서버 안에서는 락으로, 서버끼리는 DB unique 제약조건으로 충돌을 처리
+        TagResolver otherServer = new TagResolver(tagRepository, tagSuggestIndex, transactionManager, new SimpleMeterRegistry());
+        TagService otherService = new TagService(otherServer, new AccountTagJdbcRepository(
+                new NamedParameterJdbcTemplate(jdbcTemplate)), new TransactionTemplate(transactionManager),
+                new MemberTagIndex(jdbcTemplate), new SimilarMemberIndex(jdbcTemplate),
+                new TagPopularity(jdbcTemplate, tagRepository));
+
+        ExecutorService executor = Executors.newFixedThreadPool(ADDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < ADDERS; i++) {
+                Long accountId = accountIds.get(i);
+                TagService service = i % 2 == 0 ? tagService : otherService;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    service.updateAccountTags(accountId, List.of(" Kotlin  Coroutines "), List.of());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS); // 하나라도 예외가 나면 여기서 실패
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Long tagId = tagRepository.findByTitle("Kotlin Coroutines").orElseThrow().getId();
+        assertEquals(1, tagRepository.findByTitleIn(List.of("Kotlin Coroutines")).size());
+        assertEquals(ADDERS, jdbcTemplate.queryForObject(
+                "select count(*) from account_tags where tags_id = ?", Integer.class, tagId));
+    }
+
+    @Test
+    @DisplayName("한 회원이 같은 태그를 동시에 여러 번 추가/삭제해도 실패 없이 한 번만 반영")
+    void concurrent_same_account() throws Exception {
+        Long accountId = createAccounts(1).get(0);
+        Long tagId = tagResolver.resolve(List.of("Rust")).get("Rust");
+        long before = tagPopularity.count(tagId);
+
+        runConcurrently(() -> tagService.updateAccountTags(accountId, List.of("Rust"), List.of()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from account_tags where account_id = ? and tags_id = ?", Integer.class, accountId, tagId));
+        assertEquals(before + 1, tagPopularity.count(tagId));
+
+        runConcurrently(() -> tagService.updateAccountTags(accountId, List.of(), List.of("Rust")));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from account_tags where account_id = ? and tags_id = ?", Integer.class, accountId, tagId));
+        assertEquals(before, tagPopularity.count(tagId));
+    }
+
+    @Test
+    @DisplayName("태그 여러 개를 추가하는 요청과 그중 하나를 추가하는 요청이 겹쳐도, 색인과 회원 수는 account_tags 와 같음")
+    void concurrent_batch_overlaps_single() throws Exception {
+        Long accountId = createAccounts(1).get(0);
+        List<String> titles = List.of("Go", "Scala", "Elixir");
+        Map<String, Long> tagIds = tagResolver.resolve(titles);
+        Map<Long, Long> before = new HashMap<>();
+        tagIds.values().forEach(tagId -> before.put(tagId, tagPopularity.count(tagId)));
+
+        for (int round = 0; round < 20; round++) {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                Future<?> batch = executor.submit(() -> {
+                    start.await();
+                    tagService.updateAccountTags(accountId, titles, List.of());
+                    return null;
+                });
+                Future<?> single = executor.submit(() -> {
+                    start.await();
+                    tagService.updateAccountTags(accountId, List.of("Scala"), List.of());
+                    return null;
+                });
+                start.countDown();
+                batch.get(30, TimeUnit.SECONDS);
+                single.get(30, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            for (Long tagId : tagIds.values()) {
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "select count(*) from account_tags where account_id = ? and tags_id = ?", Integer.class, accountId, tagId));
+                assertEquals(before.get(tagId) + 1, tagPopularity.count(tagId));
+            }
+            assertTrue(memberTagIndex.find(tagIds.values(), true).contains(accountId.intValue()));
+
+            tagService.updateAccountTags(accountId, List.of(), titles);
+        }
+    }
+
+    @Test
+    @DisplayName("한 번 만든 태그는 캐시에서 id 로 변환, 앞뒤 공백은 무시")
+    void lookup_cached() {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            titles.add("latency-" + i);
+        }
+
+        Map<String, Long> created = tagResolver.resolve(titles);
+        for (String title : titles) {
+            assertEquals(created.get(title), tagResolver.resolve(List.of(title)).get(title));
+        }
+
+        assertTrue(tagResolver.cacheSize() >= titles.size());
+        assertEquals(tagResolver.resolve(List.of("latency-7")), tagResolver.find(List.of("  latency-7 ")));
+        assertTrue(tagResolver.find(List.of("not-created")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("제목 정규화 - 공백, 유니코드 조합")
+    void normalize() {
+        assertEquals("Spring Boot", TagResolver.normalize("  Spring \t Boot "));
+        assertEquals("한글", TagResolver.normalize("\u1112\u1161\u11ab\u1100\u1173\u11af")); // 자모가 분리된 입력
+        assertEquals("", TagResolver.normalize(null));
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Long> createAccounts(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Account account = accountRepository.save(Account.builder()
+                    .email("adder" + i + "@test.com")
+                    .nickname("adder" + i)
+                    .password("12345678")
+                    .build());
+            ids.add(account.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,84 @@
+package com.study3355.tag;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagSuggestIndexTest {
+
+    @Test
+    @DisplayName("접두사가 같은 태그를 인기순으로 추천")
+    void suggest_by_popularity() {
+        TagSuggestIndex index = new TagSuggestIndex(null, null);
+        index.load(Map.of(
+                "Spring", 10,
+                "Spring Boot", 30,
+                "Spring Security", 20,
+                "JPA", 50,
+                "스프링", 5));
+
+        assertEquals(List.of("Spring Boot", "Spring Security", "Spring"), index.suggest("spr", 10));
+        assertEquals(List.of("Spring Boot"), index.suggest("SPRING", 1));
+        assertEquals(List.of("스프링"), index.suggest("스", 10));
+        assertTrue(index.suggest("x", 10).isEmpty());
+        assertTrue(index.suggest(" ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("제목은 TagResolver 와 같이 정규화(대소문자 유지), 접두사는 대소문자를 무시하고 비교")
+    void normalize_like_tag_resolver() {
+        TagSuggestIndex index = new TagSuggestIndex(null, null);
+        index.load(Map.of("Spring", 10, "spring", 3, "Spring Boot", 5, "SQL", 1));
+
+        index.add("spring"); // 같은 제목은 무시
+        index.add("  Spring   Boot "); // 공백만 다른 제목도 같은 태그
+        index.add("SPRING"); // 대소문자가 다르면 다른 태그
+
+        assertEquals(5, index.size());
+        assertEquals(List.of("Spring", "Spring Boot", "spring", "SPRING"), index.suggest("sPr", 10));
+        assertEquals(List.of("Spring Boot"), index.suggest("spring  b", 10));
+        assertEquals(List.of("SQL"), index.suggest("sq", 10));
+
+        index.add("\u1109\u1173\u1111\u1173\u1105\u1175\u11bc"); // NFD 로 들어온 '스프링'
+        assertEquals(List.of("스프링"), index.suggest("스프", 10));
+    }
+
+    @Test
+    @DisplayName("새 태그를 추가하면 바로 추천에 포함")
+    void add() {
+        TagSuggestIndex index = new TagSuggestIndex(null, null);
+        index.load(Map.of("Java", 3, "JPA", 1));
+
+        index.add("JavaScript");
+        index.add("Java"); // 이미 있는 태그는 무시
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("Java", "JavaScript"), index.suggest("jav", 10));
+    }
+
+    @Test
+    @DisplayName("다시 만드는 동안 추가된 태그도 새 인덱스에 남음")
+    void add_during_rebuild() {
+        AtomicReference<TagSuggestIndex> holder = new AtomicReference<>();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+                holder.get().add("Kotlin"); // DB 를 읽은 뒤 만들어진 태그
+            }
+        };
+        TagSuggestIndex index = new TagSuggestIndex(jdbcTemplate, null);
+        holder.set(index);
+
+        index.rebuild();
+
+        assertEquals(List.of("Kotlin"), index.suggest("kot", 10));
+        assertEquals(1, index.size());
+    }
+}